@@ -0,0 +1,69 @@
+package ru.solonchev.blogback.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+import ru.solonchev.blogback.config.JwtProperties;
+import ru.solonchev.blogback.persistence.model.User;
+import ru.solonchev.blogback.security.BlogUserDetails;
+import ru.solonchev.blogback.security.JwtKeys;
+import ru.solonchev.blogback.security.VerifiedTokenCache;
+import ru.solonchev.blogback.web.service.AuthenticationService;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and validation through {@link AuthenticationService}. {@code validateUncached} is the cost
+ * of a first request with a token; {@code validateCached} is every following request until the token expires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationServiceBenchmark {
+
+    private static final String SECRET = "9ae82b147c80f3c8250acae18958f96dd522b075aeda6864ab380d95b6be0bc5";
+
+    private AuthenticationService cachingService;
+    private AuthenticationService nonCachingService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingService = authenticationService(true);
+        nonCachingService = authenticationService(false);
+        userDetails = new BlogUserDetails(new User()
+                .setId(UUID.randomUUID())
+                .setName("Benchmark User")
+                .setEmail("benchmark@example.com")
+                .setPassword("password"));
+        token = cachingService.generateToken(userDetails);
+        cachingService.validateToken(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachingService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public UserDetails validateCached() {
+        return cachingService.validateToken(token);
+    }
+
+    @Benchmark
+    public UserDetails validateUncached() {
+        return nonCachingService.validateToken(token);
+    }
+
+    private static AuthenticationService authenticationService(boolean tokenCacheEnabled) {
+        JwtProperties properties = new JwtProperties().setSecret(SECRET);
+        properties.getTokenCache().setEnabled(tokenCacheEnabled);
+        return new AuthenticationService(null, null,
+                new JwtKeys(properties), new VerifiedTokenCache(properties, new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.solonchev.blogback.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files ({@code -rf json}) benchmark by benchmark. A benchmark regresses when it
+ * got worse by more than the threshold and the difference is larger than the two error margins combined,
+ * so run-to-run noise alone does not fail the comparison. Exits with status 1 when anything regressed.
+ *
+ * <pre>
+ * BenchmarkComparison baseline.json candidate.json [thresholdPercent]
+ * </pre>
+ */
+public class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+    private static final String THROUGHPUT_MODE = "thrpt";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> candidate = read(Path.of(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : candidate.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "NEW        %-80s %12.3f %s%n", entry.getKey(), after.score(), after.unit());
+                continue;
+            }
+            double changePercent = (after.score() - before.score()) / before.score() * 100;
+            double worsePercent = THROUGHPUT_MODE.equals(after.mode()) ? -changePercent : changePercent;
+            boolean beyondNoise = Math.abs(after.score() - before.score()) > before.error() + after.error();
+            String verdict;
+            if (worsePercent > threshold && beyondNoise) {
+                verdict = "REGRESSED";
+                regressions++;
+            } else if (worsePercent < -threshold && beyondNoise) {
+                verdict = "IMPROVED";
+            } else {
+                verdict = "SAME";
+            }
+            System.out.printf(Locale.ROOT, "%-10s %-80s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    verdict, entry.getKey(), before.score(), after.score(), after.unit(), changePercent);
+        }
+        baseline.keySet().stream()
+                .filter(key -> !candidate.containsKey(key))
+                .forEach(key -> System.out.printf("MISSING    %s%n", key));
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(Path path) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(path.toFile())) {
+            JsonNode metric = run.get("primaryMetric");
+            results.put(key(run), new Result(
+                    run.get("mode").asText(),
+                    metric.get("score").asDouble(),
+                    metric.get("scoreError").isNumber() ? metric.get("scoreError").asDouble() : 0,
+                    metric.get("scoreUnit").asText()
+            ));
+        }
+        return results;
+    }
+
+    private static String key(JsonNode run) {
+        Map<String, String> params = new TreeMap<>();
+        JsonNode paramsNode = run.get("params");
+        if (paramsNode != null) {
+            paramsNode.fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        }
+        String benchmark = run.get("benchmark").asText().replace("ru.solonchev.blogback.", "");
+        return params.isEmpty() ? benchmark : benchmark + params;
+    }
+
+    private record Result(String mode, double score, double error, String unit) {
+    }
+}
@@ -0,0 +1,103 @@
+package ru.solonchev.blogback.benchmark;
+
+import ru.solonchev.blogback.persistence.model.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic fixtures shaped like production data: editor HTML with paragraphs and inline markup,
+ * and fully populated post graphs. A fixed seed keeps runs comparable.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "spring", "boot", "java", "thread", "virtual", "cache", "query", "index", "latency", "throughput",
+            "a", "the", "of", "and", "to", "in", "is", "for", "with", "performance", "database", "transaction",
+            "микросервис", "блог", "пост", "категория", "тег", "производительность"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static String htmlContent(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder content = new StringBuilder(length + 64);
+        while (content.length() < length) {
+            content.append("<p>");
+            int sentences = 2 + random.nextInt(4);
+            for (int sentence = 0; sentence < sentences; sentence++) {
+                int words = 6 + random.nextInt(12);
+                for (int word = 0; word < words; word++) {
+                    String text = WORDS[random.nextInt(WORDS.length)];
+                    if (random.nextInt(20) == 0) {
+                        content.append("<strong>").append(text).append("</strong>");
+                    } else {
+                        content.append(text);
+                    }
+                    content.append(word == words - 1 ? ". " : " ");
+                }
+            }
+            content.append("</p>\n");
+        }
+        content.setLength(length);
+        return content.toString();
+    }
+
+    public static List<Tag> tags(int count) {
+        List<Tag> tags = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tags.add(new Tag()
+                    .setId(new UUID(0, i))
+                    .setName("tag-" + i)
+                    .setPublishedPostCount(i * 7));
+        }
+        return tags;
+    }
+
+    public static List<Category> categories(int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            categories.add(new Category()
+                    .setId(new UUID(1, i))
+                    .setName("category-" + i)
+                    .setPublishedPostCount(i * 13));
+        }
+        return categories;
+    }
+
+    public static List<Post> posts(int count, int tagsPerPost, int contentLength) {
+        Random random = new Random(count);
+        List<Tag> tags = tags(50);
+        List<Category> categories = categories(10);
+        User author = new User()
+                .setId(new UUID(2, 0))
+                .setName("Benchmark Author")
+                .setEmail("author@example.com");
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String content = htmlContent(contentLength, i);
+            Post post = new Post()
+                    .setId(new UUID(3, i))
+                    .setTitle("Post " + i)
+                    .setContent(content)
+                    .setExcerpt(content.substring(0, Math.min(200, content.length())))
+                    .setStatus(PostStatus.PUBLISHED)
+                    .setReadingTime(1 + random.nextInt(20))
+                    .setAuthor(author)
+                    .setCategory(categories.get(random.nextInt(categories.size())))
+                    .setCreatedAt(createdAt.plusMinutes(i))
+                    .setUpdatedAt(createdAt.plusMinutes(i));
+            for (int tag = 0; tag < tagsPerPost; tag++) {
+                post.getTags().add(tags.get(random.nextInt(tags.size())));
+            }
+            posts.add(post);
+        }
+        return posts;
+    }
+}
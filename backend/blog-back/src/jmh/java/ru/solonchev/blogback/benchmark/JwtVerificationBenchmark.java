@@ -0,0 +1,66 @@
+package ru.solonchev.blogback.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import ru.solonchev.blogback.config.JwtProperties;
+import ru.solonchev.blogback.security.JwtKeys;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying one bearer token: deriving the key and building a parser per request, as
+ * {@code AuthenticationService} used to, against the key and parser precomputed by {@link JwtKeys}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "9ae82b147c80f3c8250acae18958f96dd522b075aeda6864ab380d95b6be0bc5";
+
+    private JwtKeys jwtKeys;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtKeys = new JwtKeys(new JwtProperties().setSecret(SECRET));
+        token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeys.getSigningKeyId())
+                .setClaims(Map.of(
+                        "uid", UUID.randomUUID().toString(),
+                        "name", "Benchmark User",
+                        "roles", List.of("ROLE_USER")))
+                .setSubject("benchmark@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(jwtKeys.getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims perRequestKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims precomputedKeyAndParser() {
+        return jwtKeys.getParser()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,82 @@
+package ru.solonchev.blogback.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.solonchev.blogback.persistence.model.Category;
+import ru.solonchev.blogback.persistence.model.Post;
+import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.projection.CategoryPostCountView;
+import ru.solonchev.blogback.web.dto.CategoryDto;
+import ru.solonchev.blogback.web.dto.PostDto;
+import ru.solonchev.blogback.web.dto.TagResponse;
+import ru.solonchev.blogback.web.mapper.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping of post graphs and of tag and category post counts, wired the way Spring wires
+ * the generated mappers. Counts are denormalized columns, so count mapping is a plain field copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "100"})
+    private int postCount;
+
+    private PostMapper postMapper;
+    private TagMapper tagMapper;
+    private CategoryMapper categoryMapper;
+
+    private List<Post> posts;
+    private List<Tag> tags;
+    private List<Category> categories;
+    private List<CategoryPostCountView> categoryViews;
+
+    @Setup
+    public void setUp() {
+        tagMapper = new TagMapperImpl();
+        categoryMapper = new CategoryMapperImpl();
+        postMapper = new PostMapperImpl();
+        ReflectionTestUtils.setField(postMapper, "tagMapper", tagMapper);
+        ReflectionTestUtils.setField(postMapper, "categoryMapper", categoryMapper);
+        ReflectionTestUtils.setField(postMapper, "userMapper", new UserMapperImpl());
+
+        posts = BenchmarkData.posts(postCount, 5, 5_000);
+        tags = BenchmarkData.tags(postCount);
+        categories = BenchmarkData.categories(postCount);
+        categoryViews = categories.stream()
+                .map(category -> (CategoryPostCountView) new CategoryCount(
+                        category.getId(), category.getName(), category.getPublishedPostCount()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<PostDto> mapPostsToListDto() {
+        return postMapper.mapToListDto(posts);
+    }
+
+    @Benchmark
+    public List<TagResponse> mapTagsWithPostCount() {
+        return tagMapper.mapToListTagResponse(tags);
+    }
+
+    @Benchmark
+    public List<CategoryDto> mapCategoryViewsWithPostCount() {
+        return categoryMapper.mapListViewToListDto(categoryViews);
+    }
+
+    @Benchmark
+    public CategoryDto mapCategoryWithPostCount() {
+        return categoryMapper.mapEntityToDto(categories.getFirst());
+    }
+
+    private record CategoryCount(UUID getId, String getName, long getPostCount) implements CategoryPostCountView {
+    }
+}
@@ -0,0 +1,59 @@
+package ru.solonchev.blogback.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.solonchev.blogback.web.service.TextStatistics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading time and excerpt derivation that runs on every post create and update: the regex split and replace
+ * chain {@code PostService} used to run, against the single pass of {@link TextStatistics}. Run with
+ * {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextStatisticsBenchmark {
+
+    private static final int WORDS_PER_MINUTE = 200;
+    private static final int EXCERPT_LENGTH = 200;
+
+    @Param({"2000", "50000"})
+    private int contentLength;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = BenchmarkData.htmlContent(contentLength, 42);
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        blackhole.consume(regexReadingTime(content));
+        blackhole.consume(regexExcerpt(content));
+    }
+
+    @Benchmark
+    public TextStatistics singlePass() {
+        return TextStatistics.of(content);
+    }
+
+    private static int regexReadingTime(String content) {
+        int wordCount = content.trim().split("\\s+").length;
+        return Math.ceilDiv(wordCount, WORDS_PER_MINUTE);
+    }
+
+    private static String regexExcerpt(String content) {
+        String text = content.replaceAll("<[^>]*>", " ").replaceAll("\\s+", " ").trim();
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int lastSpace = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, lastSpace > 0 ? lastSpace : EXCERPT_LENGTH) + "...";
+    }
+}
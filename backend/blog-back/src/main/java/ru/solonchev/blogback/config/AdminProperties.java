@@ -0,0 +1,23 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Set;
+
+/**
+ * Accounts granted the admin role on login, which the operational actuator endpoints require.
+ * Emails are compared ignoring case.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "admin")
+public class AdminProperties {
+
+    private Set<String> emails = Set.of();
+
+    public boolean isAdmin(String email) {
+        return emails.stream().anyMatch(admin -> admin.equalsIgnoreCase(email));
+    }
+}
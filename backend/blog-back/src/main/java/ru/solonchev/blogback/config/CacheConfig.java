@@ -0,0 +1,34 @@
+package ru.solonchev.blogback.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(caffeine(cacheProperties.getDefaults()));
+        cacheProperties.getSpecs().forEach((name, spec) ->
+                cacheManager.registerCustomCache(name, caffeine(spec).build()));
+        // evictions issued inside a transaction run after commit, so a concurrent read cannot re-cache pre-commit state
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private Caffeine<Object, Object> caffeine(CacheProperties.CacheSpec spec) {
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getExpireAfterWrite());
+        if (spec.isRecordStats()) {
+            caffeine.recordStats();
+        }
+        return caffeine;
+    }
+}
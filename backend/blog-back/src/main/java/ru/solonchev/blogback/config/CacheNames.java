@@ -0,0 +1,23 @@
+package ru.solonchev.blogback.config;
+
+/**
+ * Names of the application caches and what invalidates them.
+ * <ul>
+ *     <li>{@link #CATEGORIES} and {@link #TAG_PAGES} carry published post counts and are evicted by every post write.</li>
+ *     <li>{@link #CATEGORY}, {@link #TAG} and {@link #TAGS_BY_IDS} hold id/name snapshots and are evicted when
+ *     the category or tag itself changes.</li>
+ *     <li>{@link #USER_EXISTS} backs the optional token freshness check and is only bounded by its TTL.</li>
+ * </ul>
+ */
+public final class CacheNames {
+
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY = "category";
+    public static final String TAG = "tag";
+    public static final String TAGS_BY_IDS = "tagsByIds";
+    public static final String TAG_PAGES = "tagPages";
+    public static final String USER_EXISTS = "userExists";
+
+    private CacheNames() {
+    }
+}
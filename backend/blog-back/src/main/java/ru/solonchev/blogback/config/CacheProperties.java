@@ -0,0 +1,30 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds for the Caffeine caches. Caches without an entry in {@code specs} fall back to {@code defaults}.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "caches")
+public class CacheProperties {
+
+    private CacheSpec defaults = new CacheSpec();
+    private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+
+    @Data
+    @Accessors(chain = true)
+    public static class CacheSpec {
+
+        private long maximumSize = 1000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+        private boolean recordStats = true;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.solonchev.blogback.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.web.dto.CacheStatisticsDto;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes Caffeine statistics per cache at {@code /actuator/cachestats}.
+ */
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatisticsEndpoint {
+
+    private final CacheManager cacheManager;
+
+    @ReadOperation
+    public Map<String, CacheStatisticsDto> cacheStatistics() {
+        Map<String, CacheStatisticsDto> statistics = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            CacheStatisticsDto cacheStatistics = cacheStatistics(name);
+            if (cacheStatistics != null) {
+                statistics.put(name, cacheStatistics);
+            }
+        }
+        return statistics;
+    }
+
+    @ReadOperation
+    public CacheStatisticsDto cacheStatistics(@Selector String name) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(name);
+        if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> nativeCache)) {
+            return null;
+        }
+        CacheStats stats = nativeCache.stats();
+        return new CacheStatisticsDto()
+                .setEstimatedSize(nativeCache.estimatedSize())
+                .setHitCount(stats.hitCount())
+                .setMissCount(stats.missCount())
+                .setHitRate(stats.hitRate())
+                .setEvictionCount(stats.evictionCount());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token signing keys. New tokens are signed with {@code secret} and carry {@code key-id} in their
+ * {@code kid} header; {@code verification-keys} holds retired secrets by key id, accepted until
+ * the tokens signed with them expire. Rotating a key means moving the current secret there
+ * under its key id and configuring a new {@code secret} and {@code key-id}.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    public static final String DEFAULT_KEY_ID = "default";
+
+    private String secret;
+    private String keyId = DEFAULT_KEY_ID;
+    private Map<String, String> verificationKeys = new LinkedHashMap<>();
+    private TokenCache tokenCache = new TokenCache();
+
+    @Data
+    @Accessors(chain = true)
+    public static class TokenCache {
+
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+    }
+}
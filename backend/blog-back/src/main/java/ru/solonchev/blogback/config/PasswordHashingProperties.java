@@ -0,0 +1,19 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Password hashing cost and the bounded pool that runs it. When all threads are busy and the queue
+ * is full, new login and signup requests are rejected with 503 instead of waiting on a request thread.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+    private int bcryptStrength = 10;
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+}
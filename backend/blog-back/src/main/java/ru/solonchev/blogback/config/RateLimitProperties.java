@@ -0,0 +1,30 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Token buckets in front of login and signup. Each bucket holds {@code capacity} attempts and refills
+ * at {@code capacity} per {@code period}; at most {@code max-tracked-keys} buckets are kept in memory.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private long maxTrackedKeys = 100_000;
+    private Bucket perIp = new Bucket().setCapacity(20).setPeriod(Duration.ofMinutes(1));
+    private Bucket perEmail = new Bucket().setCapacity(5).setPeriod(Duration.ofMinutes(1));
+
+    @Data
+    @Accessors(chain = true)
+    public static class Bucket {
+
+        private int capacity;
+        private Duration period;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.solonchev.blogback.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.search.PostIndexer;
+import ru.solonchev.blogback.web.dto.SearchIndexStatisticsDto;
+
+/**
+ * Exposes the size of the in-memory search index at {@code /actuator/searchindex}.
+ */
+@Component
+@Endpoint(id = "searchindex")
+@RequiredArgsConstructor
+public class SearchIndexEndpoint {
+
+    private final PostIndexer postIndexer;
+
+    @ReadOperation
+    public SearchIndexStatisticsDto searchIndexStatistics() {
+        return postIndexer.statistics();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Which engine serves post search. {@code database} queries the PostgreSQL full-text index; {@code memory} keeps an
+ * inverted index in the JVM, built from the database at startup, and falls back to the database until it is ready.
+ * The database engine ranks at most {@code max-ranked-matches} of the newest matches of a query.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+
+    private Engine engine = Engine.DATABASE;
+    private int indexBatchSize = 500;
+    private int maxPrefixExpansions = 64;
+    private int maxRankedMatches = 10_000;
+
+    public enum Engine {
+        DATABASE, MEMORY
+    }
+}
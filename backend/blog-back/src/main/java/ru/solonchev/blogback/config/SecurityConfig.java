@@ -1,64 +1,67 @@
 package ru.solonchev.blogback.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfigurationSource;
 import ru.solonchev.blogback.persistence.model.User;
 import ru.solonchev.blogback.persistence.repository.UserRepository;
+import ru.solonchev.blogback.security.BlogUserDetails;
 import ru.solonchev.blogback.security.BlogUserDetailsService;
 import ru.solonchev.blogback.security.JwtAuthenticationFilter;
 import ru.solonchev.blogback.web.service.AuthenticationService;
 
-import java.util.Collections;
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 @Configuration
+@EnableConfigurationProperties({JwtProperties.class, RateLimitProperties.class, AdminProperties.class})
 public class SecurityConfig {
 
+    /**
+     * Reads that anyone may perform. Requests matching it skip eager token verification.
+     */
+    public static final RequestMatcher PUBLIC_READS = new AndRequestMatcher(
+            new OrRequestMatcher(
+                    antMatcher(HttpMethod.GET, "/api/v1/posts/**"),
+                    antMatcher(HttpMethod.GET, "/api/v1/categories/**"),
+                    antMatcher(HttpMethod.GET, "/api/v1/tags/**")
+            ),
+            new NegatedRequestMatcher(antMatcher(HttpMethod.GET, "/api/v1/posts/drafts"))
+    );
+
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(AuthenticationService authenticationService) {
-        return new JwtAuthenticationFilter(authenticationService);
+        return new JwtAuthenticationFilter(authenticationService, PUBLIC_READS);
     }
 
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
-        BlogUserDetailsService blogUserDetailsService = new BlogUserDetailsService(userRepository);
+    public UserDetailsService userDetailsService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                                 AdminProperties adminProperties) {
+        BlogUserDetailsService blogUserDetailsService = new BlogUserDetailsService(userRepository, adminProperties);
         String email = "user@test.com";
         userRepository.findByEmail(email).orElseGet(() -> {
             User newUser = new User()
                     .setName("Test user")
                     .setEmail(email)
-                    .setPassword(passwordEncoder().encode("password"));
+                    .setPassword(passwordEncoder.encode("password"));
             return userRepository.save(newUser);
         });
         return blogUserDetailsService;
     }
 
-    @Bean
-    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder);
-
-        return new ProviderManager(Collections.singletonList(provider));
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
-    }
-
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
                                                    JwtAuthenticationFilter jwtAuthenticationFilter,
@@ -69,10 +72,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/signup").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/v1/posts/drafts").authenticated()
-                        .requestMatchers(HttpMethod.GET, "/api/v1/posts/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/v1/categories/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/v1/tags/**").permitAll()
+                        .requestMatchers(PUBLIC_READS).permitAll()
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAuthority(BlogUserDetails.ADMIN_ROLE)
                         .anyRequest().authenticated()
                 )
                 .csrf(AbstractHttpConfigurer::disable)
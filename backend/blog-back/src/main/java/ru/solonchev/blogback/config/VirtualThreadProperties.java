@@ -0,0 +1,34 @@
+package ru.solonchev.blogback.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings that only apply when requests run on virtual threads ({@code spring.threads.virtual.enabled}).
+ * Without Tomcat's fixed worker pool nothing bounds how many requests reach the database at once,
+ * so API requests are admitted against a limit derived from the Hikari pool size.
+ */
+@Data
+@Accessors(chain = true)
+@ConfigurationProperties(prefix = "virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Admitted API requests per pooled connection. Requests spend part of their time outside
+     * a transaction, so a small multiple keeps the pool busy without long waits for a connection.
+     */
+    private int requestsPerConnection = 2;
+    private Duration admissionTimeout = Duration.ofSeconds(2);
+    private Pinning pinning = new Pinning();
+
+    @Data
+    @Accessors(chain = true)
+    public static class Pinning {
+
+        private boolean enabled = true;
+        private Duration threshold = Duration.ofMillis(20);
+    }
+}
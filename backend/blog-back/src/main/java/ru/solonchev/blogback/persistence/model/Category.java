@@ -3,6 +3,7 @@ package ru.solonchev.blogback.persistence.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +24,13 @@ public class Category {
     @Column(name = "name", unique = true, nullable = false)
     private String name;
 
+    /**
+     * Maintained by bulk updates on post writes, never written through the entity.
+     */
+    @Column(name = "published_post_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int publishedPostCount;
+
     @OneToMany(mappedBy = "category")
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
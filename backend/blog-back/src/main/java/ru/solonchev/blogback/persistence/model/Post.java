@@ -9,12 +9,22 @@ import java.util.*;
 
 @Entity
 @Table(name = "posts")
+@NamedEntityGraph(
+        name = Post.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("author"),
+                @NamedAttributeNode("category"),
+                @NamedAttributeNode("tags")
+        }
+)
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 @Accessors(chain = true)
 public class Post {
 
+    public static final String DETAILS_GRAPH = "Post.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -31,6 +41,9 @@ public class Post {
     @Column(name = "content", nullable = false)
     private String content;
 
+    @Column(name = "excerpt", nullable = false)
+    private String excerpt;
+
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
     private PostStatus status;
@@ -0,0 +1,12 @@
+package ru.solonchev.blogback.persistence.projection;
+
+import java.util.UUID;
+
+public interface CategoryPostCountView {
+
+    UUID getId();
+
+    String getName();
+
+    long getPostCount();
+}
@@ -0,0 +1,10 @@
+package ru.solonchev.blogback.persistence.projection;
+
+import java.util.UUID;
+
+public interface PostContentView {
+
+    UUID getId();
+
+    String getContent();
+}
@@ -0,0 +1,17 @@
+package ru.solonchev.blogback.persistence.projection;
+
+import ru.solonchev.blogback.persistence.model.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PostFilterView {
+
+    UUID getId();
+
+    LocalDateTime getCreatedAt();
+
+    PostStatus getStatus();
+
+    UUID getCategoryId();
+}
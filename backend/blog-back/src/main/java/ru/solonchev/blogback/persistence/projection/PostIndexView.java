@@ -0,0 +1,14 @@
+package ru.solonchev.blogback.persistence.projection;
+
+import java.util.UUID;
+
+public interface PostIndexView {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getContent();
+
+    UUID getCategoryId();
+}
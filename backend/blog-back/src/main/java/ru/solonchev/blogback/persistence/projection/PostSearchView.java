@@ -0,0 +1,10 @@
+package ru.solonchev.blogback.persistence.projection;
+
+public interface PostSearchView extends PostSummaryView {
+
+    float getRank();
+
+    String getHighlight();
+
+    boolean isTruncated();
+}
@@ -0,0 +1,31 @@
+package ru.solonchev.blogback.persistence.projection;
+
+import ru.solonchev.blogback.persistence.model.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PostSummaryView {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getExcerpt();
+
+    Integer getReadingTime();
+
+    PostStatus getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    UUID getAuthorId();
+
+    String getAuthorName();
+
+    UUID getCategoryId();
+
+    String getCategoryName();
+}
@@ -0,0 +1,12 @@
+package ru.solonchev.blogback.persistence.projection;
+
+import java.util.UUID;
+
+public interface PostTagView {
+
+    UUID getPostId();
+
+    UUID getId();
+
+    String getName();
+}
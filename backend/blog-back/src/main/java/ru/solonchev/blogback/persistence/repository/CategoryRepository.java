@@ -1,9 +1,11 @@
 package ru.solonchev.blogback.persistence.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.solonchev.blogback.persistence.model.Category;
+import ru.solonchev.blogback.persistence.projection.CategoryPostCountView;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,11 +14,37 @@ import java.util.UUID;
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
     @Query("""
-            select c
+            select c.id as id, c.name as name, c.publishedPostCount as postCount
             from Category c
-            left join fetch c.posts
+            order by c.name
             """)
-    List<Category> findAllWithPostCount();
+    List<CategoryPostCountView> findAllWithPostCount();
+
+    @Modifying
+    @Query("""
+            update Category c
+            set c.publishedPostCount = c.publishedPostCount + :delta
+            where c.id = :id
+            """)
+    int adjustPublishedPostCount(UUID id, int delta);
+
+    /**
+     * Recomputes every drifted counter from {@code posts} in one statement.
+     *
+     * @return number of categories whose counter was corrected
+     */
+    @Modifying
+    @Query(value = """
+            update categories c
+            set published_post_count = actual.post_count
+            from (select c2.id, count(p.id) as post_count
+                  from categories c2
+                  left join posts p on p.category_id = c2.id and p.status = 'PUBLISHED'
+                  group by c2.id) actual
+            where actual.id = c.id
+              and c.published_post_count <> actual.post_count
+            """, nativeQuery = true)
+    int reconcilePublishedPostCounts();
 
     boolean existsByNameIgnoreCase(String name);
 }
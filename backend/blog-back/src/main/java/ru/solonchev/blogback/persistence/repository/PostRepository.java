@@ -1,17 +1,239 @@
 package ru.solonchev.blogback.persistence.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.solonchev.blogback.persistence.model.*;
+import ru.solonchev.blogback.persistence.projection.PostContentView;
+import ru.solonchev.blogback.persistence.projection.PostFilterView;
+import ru.solonchev.blogback.persistence.projection.PostIndexView;
+import ru.solonchev.blogback.persistence.projection.PostSearchView;
+import ru.solonchev.blogback.persistence.projection.PostSummaryView;
+import ru.solonchev.blogback.persistence.projection.PostTagView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, UUID> {
-    List<Post> findAllByStatusAndCategoryAndTagsContaining(PostStatus status, Category category, Tag tag);
-    List<Post> findAllByStatusAndCategory(PostStatus status, Category category);
-    List<Post> findAllByStatusAndTagsContaining(PostStatus status, Tag tag);
-    List<Post> findAllByStatus(PostStatus status);
-    List<Post> findAllByAuthorAndStatus(User author, PostStatus status);
+
+    /**
+     * Summary columns of a post. Deliberately leaves out {@code content}, so list queries never read post bodies.
+     */
+    String SELECT_SUMMARY = """
+            select p.id as id, p.title as title, p.excerpt as excerpt, p.readingTime as readingTime,
+                   p.status as status, p.createdAt as createdAt, p.updatedAt as updatedAt,
+                   a.id as authorId, a.name as authorName, c.id as categoryId, c.name as categoryName
+            from Post p
+            join p.author a
+            join p.category c
+            """;
+
+    /**
+     * Published posts matching {@code :query}, a web search expression, optionally in the category
+     * {@code :categoryId} and tagged with all of the comma-separated {@code :tagIds}; both are empty strings when
+     * not filtering. Only the page of hits is joined back to posts, so highlights are built in the database for
+     * those rows alone and {@code content} never leaves it.
+     * <p>
+     * Ranking reads the search vector of every hit, so at most {@code :maxMatches} matches are ranked: a
+     * word that occurs in most posts would otherwise cost a pass over the whole table on every page. When more posts
+     * match, the newest {@code :maxMatches} are kept, which needs only their creation time, older matches are not
+     * returned and every hit reports the result as truncated.
+     */
+    String SEARCH_HITS = """
+            with matches as (select p.id, p.created_at, ts_rank(p.search_vector, q) as rank
+                             from posts p,
+                                  websearch_to_tsquery('russian', :query) q
+                             where p.status = 'PUBLISHED'
+                               and p.search_vector @@ q
+                               and (:categoryId = '' or cast(p.category_id as text) = :categoryId)
+                               and (:tagIds = '' or (select count(*)
+                                                     from post_tags pt
+                                                     where pt.post_id = p.id
+                                                       and cast(pt.tag_id as text) = any (string_to_array(:tagIds, ',')))
+                                   = cardinality(string_to_array(:tagIds, ',')))
+                             order by p.created_at desc
+                             limit :maxMatches + 1),
+                 hits as (select id, rank
+                          from matches
+                          order by created_at desc
+                          limit :maxMatches),
+                 page as (select id, rank
+                          from hits
+            """;
+
+    /**
+     * Orders and limits {@link #SEARCH_HITS}, optionally filtered by a keyset condition in between, and selects the
+     * summary columns with the rank and highlight of each hit. The highlight is built from the text of the post with
+     * its tags removed and any stray angle brackets escaped, so {@code <mark>} is the only tag it carries.
+     */
+    String SEARCH_PAGE = """
+                          order by rank desc, id desc
+                          limit :limit)
+            select p.id as "id", p.title as "title", p.excerpt as "excerpt", p.reading_time as "readingTime",
+                   p.status as "status", p.created_at as "createdAt", p.updated_at as "updatedAt",
+                   a.id as "authorId", a.name as "authorName", c.id as "categoryId", c.name as "categoryName",
+                   page.rank as "rank",
+                   (select count(*) > :maxMatches from matches) as "truncated",
+                   ts_headline('russian',
+                               replace(replace(regexp_replace(p.content, '<[^>]*>', ' ', 'g'),
+                                               '<', '&lt;'), '>', '&gt;'),
+                               websearch_to_tsquery('russian', :query),
+                               'MaxFragments=2, MaxWords=25, MinWords=10, StartSel=<mark>, StopSel=</mark>')
+                       as "highlight"
+            from page
+            join posts p on p.id = page.id
+            join users a on a.id = p.author_id
+            join categories c on c.id = p.category_id
+            order by page.rank desc, page.id desc
+            """;
+
+    @Override
+    @EntityGraph(Post.DETAILS_GRAPH)
+    Optional<Post> findById(UUID id);
+
+    /**
+     * The post with its row locked until the transaction ends, so writes to the same post run one after another and
+     * each reads the state the previous one committed. Associations load lazily, as the lock covers the post alone.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Post p where p.id = :id")
+    Optional<Post> findLockedById(UUID id);
+
+    @Query(SELECT_SUMMARY + """
+            where p.status = :status
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatus(PostStatus status, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            where p.status = :status
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAfter(PostStatus status, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            where p.status = :status
+              and p.category.id = :categoryId
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAndCategory(PostStatus status, UUID categoryId, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            where p.status = :status
+              and p.category.id = :categoryId
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAndCategoryAfter(PostStatus status, UUID categoryId,
+                                                           LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            join p.tags t
+            where p.status = :status
+              and t.id = :tagId
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAndTag(PostStatus status, UUID tagId, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            join p.tags t
+            where p.status = :status
+              and t.id = :tagId
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAndTagAfter(PostStatus status, UUID tagId,
+                                                      LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            join p.tags t
+            where p.status = :status
+              and p.category.id = :categoryId
+              and t.id = :tagId
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAndCategoryAndTag(PostStatus status, UUID categoryId, UUID tagId, Limit limit);
+
+    @Query(SELECT_SUMMARY + """
+            join p.tags t
+            where p.status = :status
+              and p.category.id = :categoryId
+              and t.id = :tagId
+              and (p.createdAt, p.id) < (:createdAt, :id)
+            order by p.createdAt desc, p.id desc
+            """)
+    List<PostSummaryView> findPageByStatusAndCategoryAndTagAfter(PostStatus status, UUID categoryId, UUID tagId,
+                                                                 LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query(nativeQuery = true, value = SEARCH_HITS + SEARCH_PAGE)
+    List<PostSearchView> search(String query, String categoryId, String tagIds, int maxMatches, int limit);
+
+    @Query(nativeQuery = true, value = SEARCH_HITS + """
+                          where (rank, id) < (cast(:rank as real), cast(:id as uuid))
+            """ + SEARCH_PAGE)
+    List<PostSearchView> searchAfter(String query, String categoryId, String tagIds, int maxMatches, float rank, UUID id,
+                                     int limit);
+
+    @Query(SELECT_SUMMARY + """
+            where p.author = :author
+              and p.status = :status
+            order by p.updatedAt desc, p.id desc
+            """)
+    List<PostSummaryView> findAllSummariesByAuthorAndStatus(User author, PostStatus status);
+
+    @Query(SELECT_SUMMARY + """
+            where p.id in :ids
+            """)
+    List<PostSummaryView> findSummariesByIdIn(Collection<UUID> ids);
+
+    /**
+     * Bodies of a page of in-memory search hits, which their highlights are cut from.
+     */
+    @Query("""
+            select p.id as id, p.content as content
+            from Post p
+            where p.id in :ids
+            """)
+    List<PostContentView> findContentsByIdIn(Collection<UUID> ids);
+
+    /**
+     * Next batch of posts to index, in id order after {@code after}, with the {@code content} the search
+     * index tokenizes.
+     */
+    @Query("""
+            select p.id as id, p.title as title, p.content as content, p.category.id as categoryId
+            from Post p
+            where p.status = :status
+              and p.id > :after
+            order by p.id
+            """)
+    List<PostIndexView> findIndexBatch(PostStatus status, UUID after, Limit limit);
+
+    /**
+     * Next batch of posts for the filter index, whatever their status, in id order after {@code after}.
+     */
+    @Query("""
+            select p.id as id, p.createdAt as createdAt, p.status as status, p.category.id as categoryId
+            from Post p
+            where p.id > :after
+            order by p.id
+            """)
+    List<PostFilterView> findFilterBatch(UUID after, Limit limit);
+
+    @Query("""
+            select p.id as postId, t.id as id, t.name as name
+            from Post p
+            join p.tags t
+            where p.id in :postIds
+            """)
+    List<PostTagView> findTagsByPostIdIn(Collection<UUID> postIds);
 }
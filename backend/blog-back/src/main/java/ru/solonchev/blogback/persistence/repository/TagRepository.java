@@ -4,23 +4,82 @@ package ru.solonchev.blogback.persistence.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.projection.TagPostCountView;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, UUID> {
 
+    @Query(value = """
+            select t.id as id, t.name as name, t.publishedPostCount as postCount
+            from Tag t
+            order by t.name
+            """,
+            countQuery = """
+                    select count(t)
+                    from Tag t
+                    """)
+    Page<TagPostCountView> findAllWithPostCount(Pageable pageable);
+
     @Query("""
-            select t
+            select t.id as id, t.name as name, t.publishedPostCount as postCount
             from Tag t
-            left join fetch t.posts
             """)
-    Page<Tag> findAllWithPostCount(Pageable pageable);
+    List<TagPostCountView> findAllWithPostCount();
+
+    @Modifying
+    @Query("""
+            update Tag t
+            set t.publishedPostCount = t.publishedPostCount + :delta
+            where t.id in :ids
+            """)
+    int adjustPublishedPostCount(Collection<UUID> ids, int delta);
 
-    List<Tag> findByNameIn(Set<String> names);
+    /**
+     * Recomputes every drifted counter from {@code post_tags} in one statement.
+     *
+     * @return number of tags whose counter was corrected
+     */
+    @Modifying
+    @Query(value = """
+            update tags t
+            set published_post_count = actual.post_count
+            from (select t2.id, count(p.id) as post_count
+                  from tags t2
+                  left join post_tags pt on pt.tag_id = t2.id
+                  left join posts p on p.id = pt.post_id and p.status = 'PUBLISHED'
+                  group by t2.id) actual
+            where actual.id = t.id
+              and t.published_post_count <> actual.post_count
+            """, nativeQuery = true)
+    int reconcilePublishedPostCounts();
+
+    /**
+     * Creates the tags among {@code names} that do not exist yet, in one statement, and returns only those. A name
+     * another transaction inserts concurrently is skipped once that transaction commits instead of failing on the
+     * unique constraint. Rows are inserted in name order, so concurrent batches lock names in the same order.
+     */
+    @Query(value = """
+            insert into tags (name)
+            select requested.name
+            from unnest(cast(:names as varchar[])) as requested(name)
+            order by requested.name
+            on conflict (name) do nothing
+            returning id as "id", name as "name", published_post_count as "postCount"
+            """, nativeQuery = true)
+    List<TagPostCountView> insertMissing(String[] names);
+
+    @Query("""
+            select t.id as id, t.name as name, t.publishedPostCount as postCount
+            from Tag t
+            where t.name in :names
+            """)
+    List<TagPostCountView> findWithPostCountByNameIn(Collection<String> names);
 }
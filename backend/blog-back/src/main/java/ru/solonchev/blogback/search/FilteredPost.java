@@ -0,0 +1,10 @@
+package ru.solonchev.blogback.search;
+
+import ru.solonchev.blogback.persistence.model.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+record FilteredPost(UUID id, LocalDateTime createdAt, PostStatus status, UUID categoryId, Set<UUID> tagIds) {
+}
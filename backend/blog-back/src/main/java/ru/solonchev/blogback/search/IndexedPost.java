@@ -0,0 +1,7 @@
+package ru.solonchev.blogback.search;
+
+import java.util.Set;
+import java.util.UUID;
+
+record IndexedPost(UUID id, String title, String content, UUID categoryId, Set<UUID> tagIds) {
+}
@@ -0,0 +1,259 @@
+package ru.solonchev.blogback.search;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of post ordinals per tag, category and status, for filtering posts by several tags at once.
+ * <p>
+ * Ordinals follow feed order, oldest first by {@code (created_at, id)}, so walking a bitmap from its highest ordinal
+ * down lists posts newest first, the order of the post feed. The index is loaded in that order and new posts are
+ * appended. Transactions can commit in another order than their posts were created in; a post that arrives after a
+ * newer one is inserted at its place, and the few newer posts move up by one ordinal. Otherwise a post keeps its
+ * ordinal across updates; a deleted post leaves a gap that no bitmap refers to but that keeps its place.
+ * <p>
+ * Reads run concurrently under a read lock and writes take the write lock.
+ */
+public class PostFilterIndex {
+
+    /**
+     * Oldest first, ties broken by id compared the way PostgreSQL compares {@code uuid}: as unsigned bytes.
+     */
+    static final Comparator<FilteredPost> FEED_ORDER = (post, other) ->
+            compareFeedOrder(post.createdAt(), post.id(), other.createdAt(), other.id());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<UUID, RoaringBitmap> byTag = new HashMap<>();
+    private final Map<UUID, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<PostStatus, RoaringBitmap> byStatus = new EnumMap<>(PostStatus.class);
+
+    private FilteredPost[] posts = new FilteredPost[1024];
+    private LocalDateTime[] createdAt = new LocalDateTime[1024];
+    private UUID[] ids = new UUID[1024];
+    private int size;
+
+    /**
+     * Adds {@code post}, or moves it between bitmaps if it was added before.
+     */
+    void put(FilteredPost post) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(post.id());
+            if (ordinal == null) {
+                ordinal = insert(post);
+            } else {
+                unlink(ordinal, posts[ordinal]);
+            }
+            posts[ordinal] = post;
+            link(ordinal, post);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID postId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(postId);
+            if (ordinal != null) {
+                unlink(ordinal, posts[ordinal]);
+                posts[ordinal] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the newest {@code limit} posts with {@code status} that carry all or any of {@code tagIds}, optionally
+     * in {@code categoryId}, older than the post at ({@code afterCreatedAt}, {@code afterId}) when that is given.
+     */
+    List<UUID> select(PostStatus status, UUID categoryId, Set<UUID> tagIds, TagMatch match,
+                      LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> required = requiredBitmaps(status, categoryId, tagIds, match);
+            if (required.isEmpty()) {
+                return List.of();
+            }
+            // intersect the smallest bitmaps first, so the intermediate results stay small
+            required.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+            RoaringBitmap matches = FastAggregation.and(required.iterator());
+
+            List<UUID> result = new ArrayList<>(Math.min(limit, 128));
+            int upperBound = upperBound(afterCreatedAt, afterId);
+            long ordinal = upperBound == 0 ? -1 : matches.previousValue(upperBound - 1);
+            while (ordinal >= 0 && result.size() < limit) {
+                result.add(posts[(int) ordinal].id());
+                ordinal = ordinal == 0 ? -1 : matches.previousValue((int) ordinal - 1);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Statistics statistics() {
+        lock.readLock().lock();
+        try {
+            long bitmapBytes = 0;
+            for (RoaringBitmap bitmap : byTag.values()) {
+                bitmapBytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byCategory.values()) {
+                bitmapBytes += bitmap.getLongSizeInBytes();
+            }
+            for (RoaringBitmap bitmap : byStatus.values()) {
+                bitmapBytes += bitmap.getLongSizeInBytes();
+            }
+            return new Statistics(ordinals.size(), byTag.size(), bitmapBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bitmaps a post has to be in to match; empty when some filter can match nothing. Tags matched by {@code any}
+     * are merged into a single bitmap.
+     */
+    private List<RoaringBitmap> requiredBitmaps(PostStatus status, UUID categoryId, Set<UUID> tagIds, TagMatch match) {
+        List<RoaringBitmap> required = new ArrayList<>(tagIds.size() + 2);
+        RoaringBitmap withStatus = byStatus.get(status);
+        if (withStatus == null) {
+            return List.of();
+        }
+        required.add(withStatus);
+        if (categoryId != null) {
+            RoaringBitmap inCategory = byCategory.get(categoryId);
+            if (inCategory == null) {
+                return List.of();
+            }
+            required.add(inCategory);
+        }
+        if (tagIds.isEmpty()) {
+            return required;
+        }
+        List<RoaringBitmap> tagged = new ArrayList<>(tagIds.size());
+        for (UUID tagId : tagIds) {
+            RoaringBitmap bitmap = byTag.get(tagId);
+            if (bitmap != null) {
+                tagged.add(bitmap);
+            } else if (match == TagMatch.ALL) {
+                return List.of();
+            }
+        }
+        if (tagged.isEmpty()) {
+            return List.of();
+        }
+        if (match == TagMatch.ALL) {
+            required.addAll(tagged);
+        } else {
+            required.add(FastAggregation.or(tagged.iterator()));
+        }
+        return required;
+    }
+
+    /**
+     * First ordinal not older than the cursor post. Its own ordinal when it is still indexed; otherwise ordinals
+     * are searched by creation time and id, which they follow.
+     */
+    private int upperBound(LocalDateTime afterCreatedAt, UUID afterId) {
+        if (afterId == null) {
+            return size;
+        }
+        Integer ordinal = ordinals.get(afterId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareFeedOrder(createdAt[middle], ids[middle], afterCreatedAt, afterId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gives a new post the ordinal of its place in feed order. That is the end of the index unless newer posts
+     * committed first, which are then moved up by one.
+     */
+    private int insert(FilteredPost post) {
+        if (size == posts.length) {
+            posts = Arrays.copyOf(posts, size * 2);
+            createdAt = Arrays.copyOf(createdAt, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int ordinal = size++;
+        while (ordinal > 0 && compareFeedOrder(createdAt[ordinal - 1], ids[ordinal - 1], post.createdAt(), post.id()) > 0) {
+            move(ordinal - 1, ordinal);
+            ordinal--;
+        }
+        posts[ordinal] = null;
+        createdAt[ordinal] = post.createdAt();
+        ids[ordinal] = post.id();
+        ordinals.put(post.id(), ordinal);
+        return ordinal;
+    }
+
+    private void move(int from, int to) {
+        FilteredPost post = posts[from];
+        if (post != null) {
+            unlink(from, post);
+            link(to, post);
+            ordinals.put(post.id(), to);
+        }
+        posts[to] = post;
+        createdAt[to] = createdAt[from];
+        ids[to] = ids[from];
+    }
+
+    private static int compareFeedOrder(LocalDateTime createdAt, UUID id, LocalDateTime otherCreatedAt, UUID otherId) {
+        int result = createdAt.compareTo(otherCreatedAt);
+        if (result == 0) {
+            result = Long.compareUnsigned(id.getMostSignificantBits(), otherId.getMostSignificantBits());
+        }
+        if (result == 0) {
+            result = Long.compareUnsigned(id.getLeastSignificantBits(), otherId.getLeastSignificantBits());
+        }
+        return result;
+    }
+
+    private void link(int ordinal, FilteredPost post) {
+        byStatus.computeIfAbsent(post.status(), status -> new RoaringBitmap()).add(ordinal);
+        byCategory.computeIfAbsent(post.categoryId(), categoryId -> new RoaringBitmap()).add(ordinal);
+        for (UUID tagId : post.tagIds()) {
+            byTag.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private void unlink(int ordinal, FilteredPost post) {
+        unlink(byStatus, post.status(), ordinal);
+        unlink(byCategory, post.categoryId(), ordinal);
+        for (UUID tagId : post.tagIds()) {
+            unlink(byTag, tagId, ordinal);
+        }
+    }
+
+    private static <K> void unlink(Map<K, RoaringBitmap> bitmaps, K key, int ordinal) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        bitmap.remove(ordinal);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    record Statistics(int posts, int tags, long bitmapBytes) {
+    }
+}
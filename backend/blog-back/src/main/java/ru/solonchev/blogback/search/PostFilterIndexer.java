@@ -0,0 +1,154 @@
+package ru.solonchev.blogback.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.config.SearchProperties;
+import ru.solonchev.blogback.persistence.model.Post;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.projection.PostFilterView;
+import ru.solonchev.blogback.persistence.projection.PostTagView;
+import ru.solonchev.blogback.persistence.repository.PostRepository;
+import ru.solonchev.blogback.web.dto.PostCursor;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link PostFilterIndex} in step with the database.
+ * <p>
+ * The index is loaded from {@code posts} and {@code post_tags} before the application reports itself ready, in
+ * feed order, so posts are appended to it. Post writes are applied after their transaction commits;
+ * writes that commit while the index is loading are queued and replayed once it is loaded. New posts take their
+ * place in feed order whenever they commit, see {@link PostFilterIndex}.
+ * <p>
+ * A load that fails drops its queue and is retried in the background with a growing delay. Writes that commit
+ * between two attempts are not queued, since the next attempt reads them from the database.
+ */
+@Slf4j
+@Component
+public class PostFilterIndexer implements ApplicationRunner {
+
+    private final SearchProperties properties;
+    private final PostRepository postRepository;
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+
+    private volatile PostFilterIndex index = new PostFilterIndex();
+    private volatile boolean ready;
+    private boolean loading;
+
+    public PostFilterIndexer(SearchProperties properties, PostRepository postRepository) {
+        this.properties = properties;
+        this.postRepository = postRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void run(ApplicationArguments arguments) {
+        if (!build()) {
+            Thread.ofPlatform().name("post-filter-index-retry").daemon()
+                    .start(() -> Retries.retryWithBackoff(this::build));
+        }
+    }
+
+    /**
+     * Loads the index from the database into a fresh {@link PostFilterIndex}, which replaces the current one once
+     * the writes queued meanwhile are applied to it.
+     *
+     * @return whether the index is now ready
+     */
+    boolean build() {
+        long started = System.nanoTime();
+        synchronized (pendingWrites) {
+            loading = true;
+        }
+        try {
+            // batches are read in primary key order, which needs no sort in the database, and ordered once here
+            List<FilteredPost> posts = new ArrayList<>();
+            UUID after = new UUID(0, 0);
+            while (true) {
+                List<PostFilterView> batch = postRepository.findFilterBatch(after, Limit.of(properties.getIndexBatchSize()));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                Map<UUID, Set<UUID>> tagIds = postRepository.findTagsByPostIdIn(
+                                batch.stream().map(PostFilterView::getId).toList()).stream()
+                        .collect(Collectors.groupingBy(PostTagView::getPostId,
+                                Collectors.mapping(PostTagView::getId, Collectors.toSet())));
+                for (PostFilterView post : batch) {
+                    posts.add(new FilteredPost(post.getId(), post.getCreatedAt(), post.getStatus(),
+                            post.getCategoryId(), tagIds.getOrDefault(post.getId(), Set.of())));
+                }
+                after = batch.getLast().getId();
+            }
+            posts.sort(PostFilterIndex.FEED_ORDER);
+            PostFilterIndex loaded = new PostFilterIndex();
+            posts.forEach(loaded::put);
+            synchronized (pendingWrites) {
+                index = loaded;
+                pendingWrites.forEach(Runnable::run);
+                pendingWrites.clear();
+                loading = false;
+                ready = true;
+            }
+
+            PostFilterIndex.Statistics statistics = index.statistics();
+            log.info("Loaded {} posts into the filter index in {}: {} tags, ~{} KB of bitmaps",
+                    statistics.posts(), Duration.ofNanos(System.nanoTime() - started),
+                    statistics.tags(), statistics.bitmapBytes() >> 10);
+            return true;
+        } catch (RuntimeException exception) {
+            synchronized (pendingWrites) {
+                pendingWrites.clear();
+                loading = false;
+            }
+            log.error("Loading the post filter index failed, filtering by several tags is unavailable until a retry "
+                    + "succeeds", exception);
+            return false;
+        }
+    }
+
+    public void putAfterCommit(Post post) {
+        FilteredPost filtered = new FilteredPost(post.getId(), post.getCreatedAt(), post.getStatus(),
+                post.getCategory().getId(), post.getTags().stream().map(Tag::getId).collect(Collectors.toSet()));
+        Transactions.afterCommit(() -> apply(() -> index.put(filtered)));
+    }
+
+    public void removeAfterCommit(UUID postId) {
+        Transactions.afterCommit(() -> apply(() -> index.remove(postId)));
+    }
+
+    /**
+     * Ids of the newest published posts carrying all or any of {@code tagIds}, optionally in {@code categoryId},
+     * after {@code after}: the same posts, in the same order, as the keyset queries of the post feed.
+     *
+     * @throws RejectedExecutionException while the index is still loading
+     */
+    public List<UUID> findPublished(UUID categoryId, Set<UUID> tagIds, TagMatch match, PostCursor after, int limit) {
+        if (!ready) {
+            throw new RejectedExecutionException("Post filter index is still loading");
+        }
+        return index.select(PostStatus.PUBLISHED, categoryId, tagIds, match,
+                after == null ? null : after.getCreatedAt(), after == null ? null : after.getId(), limit);
+    }
+
+    private void apply(Runnable write) {
+        synchronized (pendingWrites) {
+            if (!ready) {
+                if (loading) {
+                    pendingWrites.add(write);
+                }
+                return;
+            }
+        }
+        write.run();
+    }
+}
@@ -0,0 +1,200 @@
+package ru.solonchev.blogback.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.config.SearchProperties;
+import ru.solonchev.blogback.persistence.model.Post;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.projection.PostIndexView;
+import ru.solonchev.blogback.persistence.projection.PostTagView;
+import ru.solonchev.blogback.persistence.repository.PostRepository;
+import ru.solonchev.blogback.web.dto.PostSearchCursor;
+import ru.solonchev.blogback.web.dto.SearchIndexStatisticsDto;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link PostSearchIndex} in step with the database when the {@code memory} search engine is selected.
+ * <p>
+ * Once the application is ready, published posts are streamed into a fresh index in id-ordered batches on a
+ * background thread. Post writes are applied after their transaction commits, including while that build runs:
+ * every post written before the build finishes is remembered, and the build skips it, so a batch read before a
+ * write cannot overwrite the newer version.
+ * <p>
+ * A build that fails is dropped and retried into another fresh index with a growing delay. Writes that commit
+ * between two attempts are neither applied nor remembered, since the next attempt reads them from the database.
+ */
+@Slf4j
+@Component
+public class PostIndexer {
+
+    private static final String HIGHLIGHT_START = "<mark>";
+    private static final String HIGHLIGHT_END = "</mark>";
+
+    private final SearchProperties properties;
+    private final PostRepository postRepository;
+    private final Object buildLock = new Object();
+
+    private volatile PostSearchIndex index;
+    private volatile boolean ready;
+    private PostSearchIndex building;
+    private Set<UUID> writtenDuringBuild;
+
+    public PostIndexer(SearchProperties properties, PostRepository postRepository) {
+        this.properties = properties;
+        this.postRepository = postRepository;
+        this.index = new PostSearchIndex(properties.getMaxPrefixExpansions());
+    }
+
+    public boolean isEnabled() {
+        return properties.getEngine() == SearchProperties.Engine.MEMORY;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        if (isEnabled()) {
+            Thread.ofPlatform().name("post-index-build").daemon().start(() -> {
+                if (!build()) {
+                    Retries.retryWithBackoff(this::build);
+                }
+            });
+        }
+    }
+
+    /**
+     * Streams published posts into a fresh {@link PostSearchIndex}, which is served once it is complete.
+     *
+     * @return whether the index is now ready
+     */
+    boolean build() {
+        long started = System.nanoTime();
+        PostSearchIndex fresh = new PostSearchIndex(properties.getMaxPrefixExpansions());
+        Set<UUID> written = ConcurrentHashMap.newKeySet();
+        synchronized (buildLock) {
+            building = fresh;
+            writtenDuringBuild = written;
+        }
+        try {
+            UUID after = new UUID(0, 0);
+            while (true) {
+                List<PostIndexView> batch = postRepository.findIndexBatch(
+                        PostStatus.PUBLISHED, after, Limit.of(properties.getIndexBatchSize()));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<UUID> postIds = batch.stream().map(PostIndexView::getId).toList();
+                Map<UUID, Set<UUID>> tagIds = postRepository.findTagsByPostIdIn(postIds).stream()
+                        .collect(Collectors.groupingBy(PostTagView::getPostId,
+                                Collectors.mapping(PostTagView::getId, Collectors.toSet())));
+                fresh.putAll(batch.stream()
+                        .map(post -> new IndexedPost(post.getId(), post.getTitle(), post.getContent(),
+                                post.getCategoryId(), tagIds.getOrDefault(post.getId(), Set.of())))
+                        .toList(), written::contains);
+                after = batch.getLast().getId();
+            }
+            fresh.trimToSize();
+            synchronized (buildLock) {
+                index = fresh;
+                building = null;
+                writtenDuringBuild = null;
+                ready = true;
+            }
+
+            PostSearchIndex.Statistics statistics = fresh.statistics();
+            log.info("Indexed {} posts in {}: {} terms, {} postings, ~{} MB (~{} MB per million terms)",
+                    statistics.documents(), Duration.ofNanos(System.nanoTime() - started),
+                    statistics.terms(), statistics.postings(), statistics.estimatedBytes() >> 20,
+                    statistics.estimatedBytesPerMillionTerms() >> 20);
+            return true;
+        } catch (RuntimeException exception) {
+            synchronized (buildLock) {
+                building = null;
+                writtenDuringBuild = null;
+            }
+            log.error("Building the search index failed, search stays on the database until a retry succeeds",
+                    exception);
+            return false;
+        }
+    }
+
+    /**
+     * Indexes {@code post} once the current transaction commits, or drops it from the index if it is not published.
+     */
+    public void indexAfterCommit(Post post) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (post.getStatus() != PostStatus.PUBLISHED) {
+            removeAfterCommit(post.getId());
+            return;
+        }
+        IndexedPost indexed = new IndexedPost(post.getId(), post.getTitle(), post.getContent(), post.getCategory().getId(),
+                post.getTags().stream().map(Tag::getId).collect(Collectors.toSet()));
+        Transactions.afterCommit(() -> apply(indexed.id(), target -> target.put(indexed)));
+    }
+
+    public void removeAfterCommit(UUID postId) {
+        if (!isEnabled()) {
+            return;
+        }
+        Transactions.afterCommit(() -> apply(postId, target -> target.remove(postId)));
+    }
+
+    public List<PostSearchIndex.Hit> search(String query, UUID categoryId, Set<UUID> tagIds, PostSearchCursor after, int limit) {
+        PostSearchIndex.Hit afterHit = after == null ? null : new PostSearchIndex.Hit(after.getId(), after.getRank());
+        return index.search(SearchQuery.parse(query), categoryId, tagIds, afterHit, limit);
+    }
+
+    /**
+     * Fragments of the post HTML {@code content} around the words {@code query} matches, with those words marked,
+     * the way the database engine highlights hits.
+     */
+    public String highlight(String content, String query) {
+        return SearchQuery.parse(query).snippet(content, HIGHLIGHT_START, HIGHLIGHT_END);
+    }
+
+    public SearchIndexStatisticsDto statistics() {
+        PostSearchIndex.Statistics statistics = index.statistics();
+        return new SearchIndexStatisticsDto()
+                .setEnabled(isEnabled())
+                .setReady(ready)
+                .setDocuments(statistics.documents())
+                .setDeletedDocuments(statistics.deletedDocuments())
+                .setTerms(statistics.terms())
+                .setPostings(statistics.postings())
+                .setPostingBytes(statistics.postingBytes())
+                .setEstimatedBytes(statistics.estimatedBytes())
+                .setEstimatedBytesPerMillionTerms(statistics.estimatedBytesPerMillionTerms());
+    }
+
+    /**
+     * Applies {@code write} to the served index, or to the index being built while remembering {@code postId}.
+     * Between build attempts it is dropped.
+     */
+    private void apply(UUID postId, Consumer<PostSearchIndex> write) {
+        if (!ready) {
+            synchronized (buildLock) {
+                if (!ready) {
+                    if (building != null) {
+                        writtenDuringBuild.add(postId);
+                        write.accept(building);
+                    }
+                    return;
+                }
+            }
+        }
+        write.accept(index);
+    }
+}
@@ -0,0 +1,440 @@
+package ru.solonchev.blogback.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index over published posts, scored with BM25.
+ * <p>
+ * Every indexed post gets an ordinal, its position in the per-document arrays; posting lists refer to posts by
+ * ordinal. Ordinals only grow, so a re-indexed post gets a new one and its old ordinal is marked deleted. Deleted
+ * ordinals are skipped during search and dropped by compaction once they make up a quarter of the index.
+ * <p>
+ * Reads run concurrently under a read lock; writes take the write lock only to append postings, after the
+ * post has been tokenized.
+ */
+public class PostSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparing(Hit::score).thenComparing(Hit::postId);
+
+    // rough object sizes on a 64-bit JVM with compressed references, used for the memory estimate
+    private static final int TERM_OVERHEAD_BYTES = 40 + 24 + 16 + 32 + 16;
+    private static final int DOCUMENT_OVERHEAD_BYTES = 32 + 32 + 16 + 16 + 16;
+
+    private final int maxPrefixExpansions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final Map<UUID, Integer> categoryOrdinals = new HashMap<>();
+    private final Map<UUID, Integer> tagOrdinals = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private UUID[] postIds = new UUID[1024];
+    private int[] lengths = new int[1024];
+    private int[] categories = new int[1024];
+    private int[][] tags = new int[1024][];
+    private int documentCount;
+    private int deletedCount;
+    private long totalLength;
+
+    public PostSearchIndex(int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    /**
+     * Indexes {@code post}, replacing the previous version if it was indexed before.
+     */
+    void put(IndexedPost post) {
+        Map<String, Integer> frequencies = frequencies(post);
+        lock.writeLock().lock();
+        try {
+            append(post, frequencies);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a batch of posts, leaving out those {@code skip} accepts. The check runs under the write lock, so
+     * it is atomic with respect to concurrent {@link #put} and {@link #remove} calls.
+     */
+    void putAll(List<IndexedPost> posts, Predicate<UUID> skip) {
+        List<Map<String, Integer>> frequencies = posts.stream().map(PostSearchIndex::frequencies).toList();
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < posts.size(); i++) {
+                if (!skip.test(posts.get(i).id())) {
+                    append(posts.get(i), frequencies.get(i));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID postId) {
+        lock.writeLock().lock();
+        try {
+            delete(postId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Shrinks posting lists to their content. Called once a bulk load is done, since growth doubles capacity.
+     */
+    void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(PostingList::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for {@code query} ranked after {@code after}, or from the top when it is {@code null}.
+     * Filters narrow results to a category and to posts carrying every one of {@code tagIds}.
+     */
+    List<Hit> search(SearchQuery query, UUID categoryId, Set<UUID> tagIds, Hit after, int limit) {
+        if (query.required().isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int category = -1;
+            if (categoryId != null) {
+                Integer ordinal = categoryOrdinals.get(categoryId);
+                if (ordinal == null) {
+                    return List.of();
+                }
+                category = ordinal;
+            }
+            int[] requiredTags = new int[tagIds == null ? 0 : tagIds.size()];
+            int tagCount = 0;
+            for (UUID tagId : requiredTags.length == 0 ? Set.<UUID>of() : tagIds) {
+                Integer ordinal = tagOrdinals.get(tagId);
+                if (ordinal == null) {
+                    return List.of();
+                }
+                requiredTags[tagCount++] = ordinal;
+            }
+
+            int liveDocuments = documentCount - deletedCount;
+            float averageLength = liveDocuments == 0 ? 1 : (float) totalLength / liveDocuments;
+            List<Clause> clauses = new ArrayList<>(query.required().size());
+            for (SearchQuery.Clause clause : query.required()) {
+                List<PostingList> lists = expand(clause);
+                if (lists.isEmpty()) {
+                    return List.of();
+                }
+                clauses.add(new Clause(lists, liveDocuments));
+            }
+            clauses.sort(Comparator.comparingLong(Clause::cost));
+            List<Clause> exclusions = new ArrayList<>(query.excluded().size());
+            for (SearchQuery.Clause clause : query.excluded()) {
+                List<PostingList> lists = expand(clause);
+                if (!lists.isEmpty()) {
+                    exclusions.add(new Clause(lists, liveDocuments));
+                }
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            Clause lead = clauses.getFirst();
+            int target = 0;
+            candidates:
+            while (true) {
+                int candidate = lead.advance(target);
+                if (candidate == PostingList.NO_MORE_DOCUMENTS) {
+                    break;
+                }
+                for (int i = 1; i < clauses.size(); i++) {
+                    int document = clauses.get(i).advance(candidate);
+                    if (document == PostingList.NO_MORE_DOCUMENTS) {
+                        break candidates;
+                    }
+                    if (document != candidate) {
+                        target = document;
+                        continue candidates;
+                    }
+                }
+                target = candidate + 1;
+                if (deleted.get(candidate)
+                        || (category >= 0 && categories[candidate] != category)
+                        || !hasTags(candidate, requiredTags)
+                        || isExcluded(candidate, exclusions)) {
+                    continue;
+                }
+
+                float norm = K1 * (1 - B + B * lengths[candidate] / averageLength);
+                float score = 0;
+                for (Clause clause : clauses) {
+                    score += clause.score(candidate, norm);
+                }
+                Hit hit = new Hit(postIds[candidate], score);
+                if (after != null && WORST_FIRST.compare(hit, after) >= 0) {
+                    continue;
+                }
+                best.offer(hit);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(WORST_FIRST.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Statistics statistics() {
+        lock.readLock().lock();
+        try {
+            long postingCount = 0;
+            long postingBytes = 0;
+            long estimatedBytes = 0;
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                String term = entry.getKey();
+                PostingList list = entry.getValue();
+                postingCount += list.documentCount();
+                postingBytes += list.sizeInBytes();
+                estimatedBytes += TERM_OVERHEAD_BYTES + termBytes(term) + list.capacityInBytes();
+            }
+            for (int document = 0; document < documentCount; document++) {
+                estimatedBytes += DOCUMENT_OVERHEAD_BYTES + (tags[document] == null ? 0 : 4L * tags[document].length);
+            }
+            return new Statistics(documentCount - deletedCount, deletedCount, postings.size(),
+                    postingCount, postingBytes, estimatedBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> frequencies(IndexedPost post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        Tokenizer.tokenize(post.title(), term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        Tokenizer.tokenize(post.content(), term -> frequencies.merge(term, 1, Integer::sum));
+        return frequencies;
+    }
+
+    private void append(IndexedPost post, Map<String, Integer> frequencies) {
+        delete(post.id());
+        int document = documentCount++;
+        ensureCapacity(documentCount);
+
+        int length = 0;
+        for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+            postings.computeIfAbsent(frequency.getKey(), term -> new PostingList()).add(document, frequency.getValue());
+            length += frequency.getValue();
+        }
+        postIds[document] = post.id();
+        lengths[document] = length;
+        categories[document] = categoryOrdinals.computeIfAbsent(post.categoryId(), id -> categoryOrdinals.size());
+        tags[document] = post.tagIds().stream()
+                .mapToInt(tagId -> tagOrdinals.computeIfAbsent(tagId, id -> tagOrdinals.size()))
+                .sorted()
+                .toArray();
+        ordinals.put(post.id(), document);
+        totalLength += length;
+    }
+
+    private void delete(UUID postId) {
+        Integer document = ordinals.remove(postId);
+        if (document == null) {
+            return;
+        }
+        deleted.set(document);
+        deletedCount++;
+        totalLength -= lengths[document];
+        postIds[document] = null;
+        tags[document] = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= postIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, postIds.length * 2);
+        postIds = Arrays.copyOf(postIds, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        categories = Arrays.copyOf(categories, newCapacity);
+        tags = Arrays.copyOf(tags, newCapacity);
+    }
+
+    /**
+     * Rewrites every posting list without deleted ordinals and renumbers the remaining documents densely.
+     */
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_DELETED_TO_COMPACT || deletedCount * 4 < documentCount) {
+            return;
+        }
+        int[] remap = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            remap[document] = deleted.get(document) ? -1 : live++;
+        }
+
+        Iterator<Map.Entry<String, PostingList>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, PostingList> entry = entries.next();
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = entry.getValue().cursor();
+            while (cursor.next() != PostingList.NO_MORE_DOCUMENTS) {
+                if (remap[cursor.document()] >= 0) {
+                    compacted.add(remap[cursor.document()], cursor.frequency());
+                }
+            }
+            if (compacted.documentCount() == 0) {
+                entries.remove();
+            } else {
+                compacted.trimToSize();
+                entry.setValue(compacted);
+            }
+        }
+
+        for (int document = 0; document < documentCount; document++) {
+            int target = remap[document];
+            if (target < 0) {
+                continue;
+            }
+            postIds[target] = postIds[document];
+            lengths[target] = lengths[document];
+            categories[target] = categories[document];
+            tags[target] = tags[document];
+            ordinals.put(postIds[target], target);
+        }
+        Arrays.fill(postIds, live, documentCount, null);
+        Arrays.fill(tags, live, documentCount, null);
+        documentCount = live;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    private List<PostingList> expand(SearchQuery.Clause clause) {
+        if (clause.terms().size() == 1) {
+            return expand(clause.terms().getFirst());
+        }
+        // the same list reached through two alternatives is iterated once
+        Set<PostingList> lists = new LinkedHashSet<>();
+        for (SearchQuery.Term term : clause.terms()) {
+            lists.addAll(expand(term));
+        }
+        return List.copyOf(lists);
+    }
+
+    private List<PostingList> expand(SearchQuery.Term term) {
+        if (!term.prefix()) {
+            PostingList list = postings.get(term.text());
+            return list == null ? List.of() : List.of(list);
+        }
+        // keep the most frequent expansions: they dominate recall, and rare ones barely move the ranking
+        PriorityQueue<PostingList> expansions = new PriorityQueue<>(Comparator.comparingInt(PostingList::documentCount));
+        for (PostingList list : postings.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false).values()) {
+            expansions.offer(list);
+            if (expansions.size() > maxPrefixExpansions) {
+                expansions.poll();
+            }
+        }
+        return List.copyOf(expansions);
+    }
+
+    private boolean hasTags(int document, int[] requiredTags) {
+        for (int tag : requiredTags) {
+            if (Arrays.binarySearch(tags[document], tag) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isExcluded(int document, List<Clause> exclusions) {
+        for (Clause exclusion : exclusions) {
+            if (exclusion.advance(document) == document) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int termBytes(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (term.charAt(i) > 0xFF) {
+                return 2 * term.length();
+            }
+        }
+        return term.length();
+    }
+
+    /**
+     * One query clause: the postings of its terms, and of every expansion of a prefix, iterated as a union.
+     */
+    private static final class Clause {
+
+        private final PostingList.Cursor[] cursors;
+        private final float[] idfs;
+        private final long cost;
+
+        Clause(List<PostingList> lists, int liveDocuments) {
+            cursors = new PostingList.Cursor[lists.size()];
+            idfs = new float[lists.size()];
+            long documents = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = lists.get(i).cursor();
+                // deleted ordinals still count towards document frequency until compaction
+                int frequency = Math.min(lists.get(i).documentCount(), liveDocuments);
+                idfs[i] = (float) Math.log(1 + (liveDocuments - frequency + 0.5) / (frequency + 0.5));
+                documents += lists.get(i).documentCount();
+            }
+            cost = documents;
+        }
+
+        long cost() {
+            return cost;
+        }
+
+        int advance(int target) {
+            int next = PostingList.NO_MORE_DOCUMENTS;
+            for (PostingList.Cursor cursor : cursors) {
+                next = Math.min(next, cursor.advance(target));
+            }
+            return next;
+        }
+
+        float score(int document, float norm) {
+            float score = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i].document() == document) {
+                    int frequency = cursors[i].frequency();
+                    score += idfs[i] * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+            return score;
+        }
+    }
+
+    public record Hit(UUID postId, float score) {
+    }
+
+    /**
+     * Size of the index. {@code estimatedBytes} approximates heap use from object layouts rather than measuring it.
+     */
+    public record Statistics(int documents, int deletedDocuments, int terms, long postings, long postingBytes,
+                             long estimatedBytes) {
+
+        public long estimatedBytesPerMillionTerms() {
+            return terms == 0 ? 0 : estimatedBytes * 1_000_000 / terms;
+        }
+    }
+}
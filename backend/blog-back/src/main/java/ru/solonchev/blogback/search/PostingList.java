@@ -0,0 +1,116 @@
+package ru.solonchev.blogback.search;
+
+import java.util.Arrays;
+
+/**
+ * Documents containing one term, in ascending ordinal order, with the term frequency in each. Entries are stored
+ * as variable-length integers, the ordinal as the gap to the previous one, so a typical posting takes two bytes.
+ */
+final class PostingList {
+
+    static final int NO_MORE_DOCUMENTS = Integer.MAX_VALUE;
+
+    private byte[] data = new byte[8];
+    private int size;
+    private int documentCount;
+    private int lastDocument = -1;
+
+    void add(int document, int frequency) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("Documents must be added in ascending order");
+        }
+        ensureCapacity(10);
+        writeVarInt(document - lastDocument);
+        writeVarInt(frequency);
+        lastDocument = document;
+        documentCount++;
+    }
+
+    int documentCount() {
+        return documentCount;
+    }
+
+    int sizeInBytes() {
+        return size;
+    }
+
+    int capacityInBytes() {
+        return data.length;
+    }
+
+    void trimToSize() {
+        if (data.length > size) {
+            data = Arrays.copyOf(data, size);
+        }
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[size++] = (byte) value;
+    }
+
+    /**
+     * Forward-only iterator. Starts before the first document; {@link #document()} is {@link #NO_MORE_DOCUMENTS}
+     * once the list is exhausted.
+     */
+    final class Cursor {
+
+        private int position;
+        private int document = -1;
+        private int frequency;
+
+        int document() {
+            return document;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        int documentCount() {
+            return documentCount;
+        }
+
+        int next() {
+            if (position >= size) {
+                document = NO_MORE_DOCUMENTS;
+                return document;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            return document;
+        }
+
+        int advance(int target) {
+            while (document < target) {
+                next();
+            }
+            return document;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.solonchev.blogback.search;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+final class Retries {
+
+    private static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(5);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+    private Retries() {
+    }
+
+    /**
+     * Repeats {@code attempt} until it returns {@code true}, waiting {@link #FIRST_RETRY_DELAY} before the first
+     * repetition and twice as long before each next one, up to {@link #MAX_RETRY_DELAY}. Returns early if the
+     * thread is interrupted.
+     */
+    static void retryWithBackoff(BooleanSupplier attempt) {
+        Duration delay = FIRST_RETRY_DELAY;
+        do {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = delay.multipliedBy(2);
+            if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+                delay = MAX_RETRY_DELAY;
+            }
+        } while (!attempt.getAsBoolean());
+    }
+}
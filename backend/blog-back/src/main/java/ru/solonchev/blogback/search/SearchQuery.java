@@ -0,0 +1,193 @@
+package ru.solonchev.blogback.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A parsed search expression. Every word must occur in a post, {@code word*} matches any term starting with
+ * {@code word}, {@code a or b} matches posts containing either word and {@code -word} excludes posts containing it.
+ * Quotes are accepted but not enforced as phrases, since the index keeps no positions; their words are simply all
+ * required.
+ */
+final class SearchQuery {
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final String OR = "or";
+
+    private static final int SNIPPET_FRAGMENTS = 2;
+    private static final int SNIPPET_WORDS = 25;
+    private static final int WORDS_BEFORE_MATCH = 5;
+    private static final String FRAGMENT_DELIMITER = " ... ";
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    private final List<Clause> required;
+    private final List<Clause> excluded;
+
+    private SearchQuery(List<Clause> required, List<Clause> excluded) {
+        this.required = required;
+        this.excluded = excluded;
+    }
+
+    static SearchQuery parse(String query) {
+        List<Clause> required = new ArrayList<>();
+        List<Clause> excluded = new ArrayList<>();
+        boolean lastRequired = false;
+        boolean or = false;
+        for (String word : query.replace('"', ' ').trim().split("\\s+")) {
+            if (word.equalsIgnoreCase(OR)) {
+                or = lastRequired;
+                continue;
+            }
+            boolean exclude = word.length() > 1 && word.charAt(0) == '-';
+            boolean prefix = word.length() > 1 && word.charAt(word.length() - 1) == '*';
+            List<String> terms = new ArrayList<>();
+            Tokenizer.tokenize(word, terms::add);
+            for (int i = 0; i < terms.size(); i++) {
+                String text = terms.get(i);
+                boolean last = i == terms.size() - 1;
+                Term term = new Term(text, prefix && last && text.length() >= MIN_PREFIX_LENGTH);
+                if (exclude) {
+                    excluded.add(new Clause(List.of(term)));
+                } else if (i == 0 && or) {
+                    required.add(required.removeLast().or(term));
+                } else {
+                    required.add(new Clause(List.of(term)));
+                }
+            }
+            lastRequired = !exclude && !terms.isEmpty();
+            or = false;
+        }
+        return new SearchQuery(List.copyOf(required), List.copyOf(excluded));
+    }
+
+    List<Clause> required() {
+        return required;
+    }
+
+    List<Clause> excluded() {
+        return excluded;
+    }
+
+    /**
+     * Up to {@value #SNIPPET_FRAGMENTS} fragments of {@code html} around the words matched by a required clause,
+     * each wrapped in {@code start} and {@code end}, the way the database engine builds highlights. Tags are dropped
+     * and stray angle brackets escaped, so the markers are the only markup in the result. Without a match in the
+     * text, its beginning is returned.
+     */
+    String snippet(String html, String start, String end) {
+        StringBuilder text = new StringBuilder(html.length());
+        List<Word> words = new ArrayList<>();
+        char[] term = new char[Tokenizer.MAX_TERM_LENGTH];
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                int wordStart = text.length();
+                int termLength = 0;
+                while (i < length && Character.isLetterOrDigit(html.charAt(i))) {
+                    if (termLength < term.length) {
+                        term[termLength++] = Tokenizer.normalize(html.charAt(i));
+                    }
+                    text.append(html.charAt(i++));
+                }
+                words.add(new Word(wordStart, text.length(), matches(new String(term, 0, termLength))));
+                continue;
+            }
+            if (c == '<') {
+                int tagEnd = Tokenizer.tagEnd(html, i);
+                if (tagEnd >= 0) {
+                    appendSpace(text);
+                    i = tagEnd;
+                } else {
+                    text.append("&lt;");
+                }
+            } else if (c == '>') {
+                text.append("&gt;");
+            } else if (c == '&') {
+                int entityEnd = html.indexOf(';', i + 1);
+                if (entityEnd >= 0 && entityEnd - i <= MAX_ENTITY_LENGTH) {
+                    text.append(html, i, entityEnd + 1);
+                    i = entityEnd;
+                } else {
+                    text.append(c);
+                }
+            } else if (Character.isWhitespace(c)) {
+                appendSpace(text);
+            } else {
+                text.append(c);
+            }
+            i++;
+        }
+        if (words.isEmpty()) {
+            return "";
+        }
+
+        List<int[]> fragments = new ArrayList<>(SNIPPET_FRAGMENTS);
+        int covered = 0;
+        for (int word = 0; word < words.size() && fragments.size() < SNIPPET_FRAGMENTS; word++) {
+            if (word >= covered && words.get(word).matched()) {
+                int from = Math.max(covered, word - WORDS_BEFORE_MATCH);
+                covered = Math.min(words.size(), from + SNIPPET_WORDS);
+                fragments.add(new int[]{from, covered});
+            }
+        }
+        if (fragments.isEmpty()) {
+            fragments.add(new int[]{0, Math.min(words.size(), SNIPPET_WORDS)});
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        for (int[] fragment : fragments) {
+            if (!snippet.isEmpty()) {
+                snippet.append(FRAGMENT_DELIMITER);
+            }
+            int position = words.get(fragment[0]).start();
+            for (int word = fragment[0]; word < fragment[1]; word++) {
+                Word current = words.get(word);
+                snippet.append(text, position, current.start());
+                if (current.matched()) {
+                    snippet.append(start).append(text, current.start(), current.end()).append(end);
+                } else {
+                    snippet.append(text, current.start(), current.end());
+                }
+                position = current.end();
+            }
+        }
+        return snippet.toString();
+    }
+
+    private static void appendSpace(StringBuilder text) {
+        if (!text.isEmpty() && text.charAt(text.length() - 1) != ' ') {
+            text.append(' ');
+        }
+    }
+
+    private boolean matches(String term) {
+        for (Clause clause : required) {
+            for (Term alternative : clause.terms()) {
+                if (alternative.prefix() ? term.startsWith(alternative.text()) : term.equals(alternative.text())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One query word, or several joined by {@code or}: a post matches the clause if it contains any of its terms.
+     */
+    record Clause(List<Term> terms) {
+
+        Clause or(Term term) {
+            List<Term> alternatives = new ArrayList<>(terms);
+            alternatives.add(term);
+            return new Clause(List.copyOf(alternatives));
+        }
+    }
+
+    record Term(String text, boolean prefix) {
+    }
+
+    private record Word(int start, int end, boolean matched) {
+    }
+}
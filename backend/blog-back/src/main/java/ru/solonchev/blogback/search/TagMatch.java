@@ -0,0 +1,22 @@
+package ru.solonchev.blogback.search;
+
+import java.util.Locale;
+
+/**
+ * How a list of tags filters posts: {@code all} keeps posts carrying every tag, {@code any} posts carrying at least one.
+ */
+public enum TagMatch {
+    ALL,
+    ANY;
+
+    public static TagMatch parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Tag match must be one of all, any: " + value);
+        }
+    }
+}
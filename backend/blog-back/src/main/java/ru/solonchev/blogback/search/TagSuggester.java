@@ -0,0 +1,71 @@
+package ru.solonchev.blogback.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.persistence.repository.TagRepository;
+import ru.solonchev.blogback.web.dto.TagResponse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves tag name suggestions from a {@link TagSuggestionIndex} held in memory.
+ * <p>
+ * The index is loaded before the application reports itself ready and reloaded whole after a transaction that
+ * creates or deletes tags commits. Published post counts are adjusted in place after each post write commits,
+ * under the same lock as reloads, so a reload that read the counts before a write committed never replaces the
+ * index after that write's adjustment.
+ */
+@Slf4j
+@Component
+public class TagSuggester implements ApplicationRunner {
+
+    private final TagRepository tagRepository;
+
+    private volatile TagSuggestionIndex index = TagSuggestionIndex.EMPTY;
+
+    public TagSuggester(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments arguments) {
+        reload();
+        log.info("Loaded {} tags for suggestions", index.size());
+    }
+
+    public void reloadAfterCommit() {
+        Transactions.afterCommit(this::reload);
+    }
+
+    public void adjustPostCountsAfterCommit(Collection<UUID> tagIds, int delta) {
+        Transactions.afterCommit(() -> adjustPostCounts(tagIds, delta));
+    }
+
+    public List<TagResponse> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream()
+                .map(tag -> new TagResponse(tag.id(), tag.name(), tag.postCount()))
+                .toList();
+    }
+
+    /**
+     * Serialized, so every reload reads the tags after the commit that triggered it and the last one to finish
+     * installs the newest index.
+     */
+    private synchronized void reload() {
+        index = new TagSuggestionIndex(tagRepository.findAllWithPostCount().stream()
+                .map(tag -> new TagSuggestionIndex.SuggestedTag(tag.getId(), tag.getName(), (int) tag.getPostCount()))
+                .toList());
+    }
+
+    /**
+     * Waits for a running reload, which may have read the counts before this write committed, and adjusts the
+     * index it installs.
+     */
+    private synchronized void adjustPostCounts(Collection<UUID> tagIds, int delta) {
+        tagIds.forEach(tagId -> index.adjustPostCount(tagId, delta));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.solonchev.blogback.search;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tag names sorted by their case-folded form, so the tags starting with a prefix are one contiguous range found by
+ * binary search. The names never change once built; a new or deleted tag means a new index. Published post counts,
+ * which only rank suggestions, are adjusted in place.
+ */
+public class TagSuggestionIndex {
+
+    private static final Comparator<SuggestedTag> RANKING = Comparator.comparingInt(SuggestedTag::postCount).reversed()
+            .thenComparing(SuggestedTag::name);
+
+    static final TagSuggestionIndex EMPTY = new TagSuggestionIndex(List.of());
+
+    private final String[] keys;
+    private final SuggestedTag[] tags;
+    private final AtomicIntegerArray postCounts;
+    private final Map<UUID, Integer> positions;
+
+    TagSuggestionIndex(Collection<SuggestedTag> tags) {
+        this.tags = tags.stream()
+                .sorted(Comparator.comparing((SuggestedTag tag) -> fold(tag.name())).thenComparing(SuggestedTag::name))
+                .toArray(SuggestedTag[]::new);
+        this.keys = new String[this.tags.length];
+        this.postCounts = new AtomicIntegerArray(this.tags.length);
+        this.positions = HashMap.newHashMap(this.tags.length);
+        for (int i = 0; i < this.tags.length; i++) {
+            keys[i] = fold(this.tags[i].name());
+            postCounts.set(i, this.tags[i].postCount());
+            positions.put(this.tags[i].id(), i);
+        }
+    }
+
+    /**
+     * Up to {@code limit} tags whose name starts with {@code prefix}, ignoring case, most used first and then by name.
+     */
+    List<SuggestedTag> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        int from = lowerBound(key);
+        // worst suggestion on top, so it is the one evicted once the queue is full
+        PriorityQueue<SuggestedTag> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int i = from; i < keys.length && keys[i].startsWith(key); i++) {
+            best.add(tags[i].withPostCount(postCounts.get(i)));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<SuggestedTag> result = new ArrayList<>(best);
+        result.sort(RANKING);
+        return result;
+    }
+
+    void adjustPostCount(UUID tagId, int delta) {
+        Integer position = positions.get(tagId);
+        if (position != null) {
+            postCounts.addAndGet(position, delta);
+        }
+    }
+
+    int size() {
+        return tags.length;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String fold(String name) {
+        char[] folded = new char[name.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Tokenizer.normalize(name.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    record SuggestedTag(UUID id, String name, int postCount) {
+
+        SuggestedTag withPostCount(int postCount) {
+            return postCount == this.postCount ? this : new SuggestedTag(id, name, postCount);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.solonchev.blogback.search;
+
+import java.util.function.Consumer;
+
+/**
+ * Splits post HTML into lower-case terms: runs of letters and digits, with tags and character entities skipped.
+ * A {@code <} starts a tag only when a letter, {@code /} or {@code !} follows it, so text like {@code a < b} keeps
+ * its words.
+ * {@code ё} is folded into {@code е}, as readers rarely type it, and terms longer than {@value #MAX_TERM_LENGTH}
+ * characters are cut to that length.
+ */
+final class Tokenizer {
+
+    static final int MAX_TERM_LENGTH = 32;
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    private Tokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> terms) {
+        if (text == null) {
+            return;
+        }
+        char[] term = new char[MAX_TERM_LENGTH];
+        int termLength = 0;
+        boolean inTerm = false;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (termLength < MAX_TERM_LENGTH) {
+                    term[termLength++] = normalize(c);
+                }
+                inTerm = true;
+                continue;
+            }
+            if (inTerm) {
+                terms.accept(new String(term, 0, termLength));
+                termLength = 0;
+                inTerm = false;
+            }
+            if (c == '<') {
+                int tagEnd = tagEnd(text, i);
+                if (tagEnd >= 0) {
+                    i = tagEnd;
+                }
+            } else if (c == '&') {
+                int entityEnd = text.indexOf(';', i + 1);
+                if (entityEnd >= 0 && entityEnd - i <= MAX_ENTITY_LENGTH) {
+                    i = entityEnd;
+                }
+            }
+        }
+        if (inTerm) {
+            terms.accept(new String(term, 0, termLength));
+        }
+    }
+
+    /**
+     * The index of the {@code >} closing a tag that starts at {@code start}, or {@code -1} if the {@code <} there
+     * is plain text.
+     */
+    static int tagEnd(String text, int start) {
+        if (start + 1 >= text.length()) {
+            return -1;
+        }
+        char next = text.charAt(start + 1);
+        if (!Character.isLetter(next) && next != '/' && next != '!') {
+            return -1;
+        }
+        return text.indexOf('>', start + 2);
+    }
+
+    static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+}
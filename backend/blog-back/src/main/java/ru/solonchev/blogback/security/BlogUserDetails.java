@@ -11,28 +11,37 @@ import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Principal of an authenticated user. Built from the {@link User} entity on login and from
+ * verified token claims on every other request, in which case {@code password} is {@code null}.
+ */
 @Getter
 @RequiredArgsConstructor
 public class BlogUserDetails implements UserDetails {
 
-    private final User user;
+    public static final String DEFAULT_ROLE = "ROLE_USER";
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
-    }
+    private final UUID id;
+    private final String name;
+    private final String username;
+    private final String password;
+    private final Collection<? extends GrantedAuthority> authorities;
 
-    @Override
-    public String getPassword() {
-        return user.getPassword();
+    public BlogUserDetails(User user) {
+        this(user, false);
     }
 
-    @Override
-    public String getUsername() {
-        return user.getEmail();
+    public BlogUserDetails(User user, boolean admin) {
+        this(user.getId(), user.getName(), user.getEmail(), user.getPassword(), admin
+                ? List.of(new SimpleGrantedAuthority(DEFAULT_ROLE), new SimpleGrantedAuthority(ADMIN_ROLE))
+                : List.of(new SimpleGrantedAuthority(DEFAULT_ROLE)));
     }
 
-    public UUID getId() {
-        return user.getId();
+    public static BlogUserDetails fromClaims(UUID id, String name, String email, Collection<String> roles) {
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return new BlogUserDetails(id, name, email, null, authorities);
     }
 }
@@ -5,6 +5,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import ru.solonchev.blogback.config.AdminProperties;
 import ru.solonchev.blogback.persistence.model.User;
 import ru.solonchev.blogback.persistence.repository.UserRepository;
 
@@ -13,11 +14,12 @@ import ru.solonchev.blogback.persistence.repository.UserRepository;
 public class BlogUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final AdminProperties adminProperties;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-        return new BlogUserDetails(user);
+        return new BlogUserDetails(user, adminProperties.isAdmin(user.getEmail()));
     }
 }
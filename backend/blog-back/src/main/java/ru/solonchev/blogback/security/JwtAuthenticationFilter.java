@@ -7,8 +7,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 import ru.solonchev.blogback.web.service.AuthenticationService;
 
@@ -19,27 +23,45 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final AuthenticationService authenticationService;
+    /**
+     * Requests that are permitted anonymously. Their token is verified lazily, only if something
+     * reads the security context, so public reads pay no authentication cost. The {@code userId}
+     * request attribute is not set for them.
+     */
+    private final RequestMatcher publicRequestMatcher;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        try {
-            String token = extractToken(request);
-            if (token != null) {
-                UserDetails userDetails = authenticationService.validateToken(token);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                if (userDetails instanceof BlogUserDetails) {
-                    request.setAttribute("userId", ((BlogUserDetails) userDetails).getId());
+        String token = extractToken(request);
+        if (token != null) {
+            SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+            if (publicRequestMatcher.matches(request)) {
+                strategy.setDeferredContext(SingletonSupplier.of(() -> resolveContext(strategy, token)));
+            } else {
+                SecurityContext context = resolveContext(strategy, token);
+                strategy.setContext(context);
+                if (context.getAuthentication() != null
+                        && context.getAuthentication().getPrincipal() instanceof BlogUserDetails userDetails) {
+                    request.setAttribute("userId", userDetails.getId());
                 }
             }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private SecurityContext resolveContext(SecurityContextHolderStrategy strategy, String token) {
+        SecurityContext context = strategy.createEmptyContext();
+        try {
+            UserDetails userDetails = authenticationService.validateToken(token);
+            context.setAuthentication(new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            ));
         } catch (Exception e) {
             log.warn("Received invalid auth token");
         }
-        filterChain.doFilter(request, response);
+        return context;
     }
 
     private String extractToken(HttpServletRequest request) {
@@ -0,0 +1,66 @@
+package ru.solonchev.blogback.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.config.JwtProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HMAC keys and the token parser, derived once at startup. Both are immutable and shared by all request threads.
+ */
+@Component
+public class JwtKeys {
+
+    @Getter
+    private final String signingKeyId;
+    @Getter
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+    @Getter
+    private final JwtParser parser;
+
+    public JwtKeys(JwtProperties properties) {
+        this.signingKeyId = properties.getKeyId();
+        this.signingKey = hmacKey(properties.getSecret());
+
+        Map<String, Key> keys = new HashMap<>();
+        properties.getVerificationKeys().forEach((keyId, secret) -> keys.put(keyId, hmacKey(secret)));
+        keys.put(signingKeyId, signingKey);
+        this.verificationKeys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Tokens issued before key ids were introduced have no {@code kid} and map to {@link JwtProperties#DEFAULT_KEY_ID}.
+     */
+    private Key resolveKey(String keyId) {
+        Key key = verificationKeys.get(keyId == null ? JwtProperties.DEFAULT_KEY_ID : keyId);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static Key hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.solonchev.blogback.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+
+/**
+ * Principal resolved from a token whose signature and expiry have already been checked.
+ */
+public record VerifiedToken(UserDetails principal, Instant expiresAt) {
+}
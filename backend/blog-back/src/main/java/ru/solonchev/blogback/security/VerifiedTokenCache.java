@@ -0,0 +1,99 @@
+package ru.solonchev.blogback.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import ru.solonchev.blogback.config.JwtProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Remembers verified tokens until their {@code exp}, so repeated requests with the same bearer token
+ * skip signature verification and claim parsing. Entries are keyed by the SHA-256 digest of the token,
+ * never by the token itself. Hit and miss counts are published as {@code cache.*} meters
+ * tagged {@code cache=verifiedTokens}, and every actual verification is timed as {@code jwt.verification}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "verifiedTokens";
+    private static final String CACHE_MANAGER_NAME = "jwt";
+    private static final String VERIFICATION_TIMER = "jwt.verification";
+
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+    private final MeterRegistry meterRegistry;
+
+    public VerifiedTokenCache(JwtProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.getTokenCache().isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getTokenCache().getMaximumSize())
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.meterRegistry = meterRegistry;
+        // same tag keys as the Spring caches bound by Boot: Prometheus drops meters whose label set differs
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME,
+                Tags.of("cache.manager", CACHE_MANAGER_NAME, "name", CACHE_NAME));
+    }
+
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (!enabled) {
+            return verify(token, verifier);
+        }
+        return cache.get(digest(token), key -> verify(token, verifier));
+    }
+
+    private VerifiedToken verify(String token, Function<String, VerifiedToken> verifier) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            VerifiedToken verifiedToken = verifier.apply(token);
+            outcome = "valid";
+            return verifiedToken;
+        } finally {
+            sample.stop(Timer.builder(VERIFICATION_TIMER)
+                    .description("Signature verification and claim parsing of bearer tokens")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
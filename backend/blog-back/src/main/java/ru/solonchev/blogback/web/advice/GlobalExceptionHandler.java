@@ -2,17 +2,23 @@ package ru.solonchev.blogback.web.advice;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.solonchev.blogback.web.dto.ApiErrorResponse;
+import ru.solonchev.blogback.web.exception.RateLimitExceededException;
+
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     @ExceptionHandler(exception = Exception.class)
     public ResponseEntity<ApiErrorResponse> handleException(Exception exception) {
         log.error("Caught exception", exception);
@@ -46,6 +52,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiErrorResponse> handleRejectedExecutionException(RejectedExecutionException exception) {
+        ApiErrorResponse error = new ApiErrorResponse()
+                .setStatus(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .setMessage("Server is busy, try again later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(error);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleRateLimitExceededException(RateLimitExceededException exception) {
+        ApiErrorResponse error = new ApiErrorResponse()
+                .setStatus(HttpStatus.TOO_MANY_REQUESTS.value())
+                .setMessage(exception.getMessage());
+        long retryAfterSeconds = Math.max(1, (exception.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error);
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleEntityNotFoundException(EntityNotFoundException exception) {
         ApiErrorResponse error = new ApiErrorResponse()
@@ -1,5 +1,6 @@
 package ru.solonchev.blogback.web.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -7,7 +8,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import ru.solonchev.blogback.persistence.model.User;
 import ru.solonchev.blogback.security.BlogUserDetails;
@@ -15,10 +15,14 @@ import ru.solonchev.blogback.web.dto.AuthResponse;
 import ru.solonchev.blogback.web.dto.LoginRequest;
 import ru.solonchev.blogback.web.dto.SignupRequestDto;
 import ru.solonchev.blogback.web.dto.UserProfileDto;
+import ru.solonchev.blogback.web.service.AuthRateLimiter;
 import ru.solonchev.blogback.web.service.AuthenticationService;
+import ru.solonchev.blogback.web.service.PasswordHashingService;
 import ru.solonchev.blogback.web.service.UserService;
 
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping(path = "/api/v1/auth")
@@ -27,19 +31,23 @@ public class AuthController {
 
     private final AuthenticationService authenticationService;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        UserDetails userDetails = authenticationService.authenticate(
-                request.getEmail(),
-                request.getPassword()
-        );
-        String token = authenticationService.generateToken(userDetails);
-        AuthResponse authResponse = new AuthResponse()
-                .setToken(token)
-                .setExpiresIn(86400);
-        return ResponseEntity.ok(authResponse);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                 HttpServletRequest httpRequest) {
+        authRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
+        Optional<UserDetails> user = authenticationService.findUser(request.getEmail());
+        String storedPassword = user.map(UserDetails::getPassword).orElse(null);
+        return passwordHashingService.matches(request.getPassword(), storedPassword).thenApply(matches -> {
+            UserDetails userDetails = authenticationService.checkCredentials(user, matches);
+            String token = authenticationService.generateToken(userDetails);
+            AuthResponse authResponse = new AuthResponse()
+                    .setToken(token)
+                    .setExpiresIn(86400);
+            return ResponseEntity.ok(authResponse);
+        });
     }
 
     @GetMapping("/profile")
@@ -54,16 +62,20 @@ public class AuthController {
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<String> signup(@Valid @RequestBody SignupRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<String>> signup(@Valid @RequestBody SignupRequestDto requestDto,
+                                                            HttpServletRequest httpRequest) {
+        authRateLimiter.checkSignup(httpRequest.getRemoteAddr(), requestDto.getEmail());
         if (userService.isExistsByEmail(requestDto.getEmail())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Choose another email");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Choose another email"));
         }
-        String hashedPassword = passwordEncoder.encode(requestDto.getPassword());
-        User user = new User()
-                .setName(requestDto.getName())
-                .setPassword(hashedPassword)
-                .setEmail(requestDto.getEmail());
-        userService.addUser(user);
-        return ResponseEntity.ok("Success, Baby");
+        return passwordHashingService.encode(requestDto.getPassword()).thenApply(hashedPassword -> {
+            User user = new User()
+                    .setName(requestDto.getName())
+                    .setPassword(hashedPassword)
+                    .setEmail(requestDto.getEmail());
+            userService.addUser(user);
+            return ResponseEntity.ok("Success, Baby");
+        });
     }
 }
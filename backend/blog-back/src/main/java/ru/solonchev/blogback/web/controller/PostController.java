@@ -7,10 +7,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.solonchev.blogback.web.dto.CreatePostRequestDto;
 import ru.solonchev.blogback.web.dto.PostDto;
+import ru.solonchev.blogback.web.dto.PostPageDto;
+import ru.solonchev.blogback.web.dto.PostSearchPageDto;
+import ru.solonchev.blogback.web.dto.PostSummaryDto;
 import ru.solonchev.blogback.web.dto.UpdatePostRequestDto;
 import ru.solonchev.blogback.web.service.PostService;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -21,14 +25,37 @@ public class PostController {
     private final PostService postService;
 
     @GetMapping
-    public ResponseEntity<List<PostDto>> findAllPosts(
+    public ResponseEntity<List<PostSummaryDto>> findAllPosts(
             @RequestParam(required = false) UUID categoryId,
-            @RequestParam(required = false) UUID tagId) {
-        return ResponseEntity.ok(postService.findAllPosts(categoryId, tagId));
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) Set<UUID> tagIds,
+            @RequestParam(defaultValue = "all") String match) {
+        return ResponseEntity.ok(postService.findAllPosts(categoryId, tagId, tagIds, match));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<PostPageDto> findPostsPage(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) Set<UUID> tagIds,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        return ResponseEntity.ok(postService.findPostsPage(categoryId, tagId, tagIds, match, cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PostSearchPageDto> searchPosts(
+            @RequestParam String q,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) Set<UUID> tagIds,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(postService.searchPosts(q, categoryId, tagIds, cursor, limit));
     }
 
     @GetMapping("/drafts")
-    public ResponseEntity<List<PostDto>> findAllDrafts(@RequestAttribute UUID userId) {
+    public ResponseEntity<List<PostSummaryDto>> findAllDrafts(@RequestAttribute UUID userId) {
         return ResponseEntity.ok(postService.findAllUserDrafts(userId));
     }
 
@@ -26,6 +26,13 @@ public class TagController {
         return ResponseEntity.ok(tagService.findAllTags(page, size));
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<TagResponse>> suggestTags(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.suggestTags(prefix, limit));
+    }
+
     @PostMapping
     public ResponseEntity<List<TagResponse>> createTags(@RequestBody CreateTagsRequest request) {
         return new ResponseEntity<>(tagService.createTags(request), HttpStatus.CREATED);
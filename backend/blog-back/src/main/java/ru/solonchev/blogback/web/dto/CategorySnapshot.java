@@ -0,0 +1,20 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.Value;
+import ru.solonchev.blogback.persistence.model.Category;
+
+import java.util.UUID;
+
+/**
+ * Immutable, session-independent view of a category that is safe to keep in a shared cache.
+ */
+@Value
+public class CategorySnapshot {
+
+    UUID id;
+    String name;
+
+    public static CategorySnapshot of(Category category) {
+        return new CategorySnapshot(category.getId(), category.getName());
+    }
+}
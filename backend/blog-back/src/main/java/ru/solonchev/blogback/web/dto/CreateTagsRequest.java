@@ -1,5 +1,6 @@
 package ru.solonchev.blogback.web.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -8,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Data
@@ -18,6 +20,7 @@ public class CreateTagsRequest {
 
     @NotEmpty(message = "At least one tag name is required")
     @Size(max = 10, message = "Maximum {max} tags allowed")
+    @JsonDeserialize(as = LinkedHashSet.class)
     private Set<
             @Size(min = 2, max = 30, message = "Minimum {min} and maximum {max} characters allowed")
             @Pattern(regexp = "^[\\w\\s-]$", message = "Tag name must contain only letters, numbers, spaces, and hyphens")
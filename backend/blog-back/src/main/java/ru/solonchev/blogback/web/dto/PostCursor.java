@@ -0,0 +1,48 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.Value;
+import ru.solonchev.blogback.persistence.projection.PostSummaryView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last post on a page, ordered by {@code created_at desc, id desc}.
+ * Clients receive it as an opaque URL-safe token and send it back to fetch the next page.
+ */
+@Value
+public class PostCursor {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime createdAt;
+    UUID id;
+
+    public static PostCursor of(PostSummaryView post) {
+        return new PostCursor(post.getCreatedAt(), post.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new PostCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1))
+            );
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
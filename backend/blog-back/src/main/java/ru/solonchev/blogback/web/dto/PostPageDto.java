@@ -0,0 +1,19 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class PostPageDto {
+
+    private List<PostSummaryDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
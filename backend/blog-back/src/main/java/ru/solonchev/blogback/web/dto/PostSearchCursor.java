@@ -0,0 +1,50 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.Value;
+import ru.solonchev.blogback.config.SearchProperties;
+import ru.solonchev.blogback.persistence.projection.PostSearchView;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last hit on a search page, ordered by {@code rank desc, id desc}. The rank travels as its
+ * exact bit pattern, so the next page starts precisely after the last hit. Ranks of the two search engines are
+ * not comparable, so the cursor also names the engine that produced it.
+ */
+@Value
+public class PostSearchCursor {
+
+    private static final char SEPARATOR = '|';
+
+    SearchProperties.Engine engine;
+    float rank;
+    UUID id;
+
+    public static PostSearchCursor of(PostSearchView hit) {
+        return new PostSearchCursor(SearchProperties.Engine.DATABASE, hit.getRank(), hit.getId());
+    }
+
+    public String encode() {
+        String raw = engine.name() + SEPARATOR + Integer.toHexString(Float.floatToIntBits(rank)) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new PostSearchCursor(
+                    SearchProperties.Engine.valueOf(parts[0]),
+                    Float.intBitsToFloat(Integer.parseUnsignedInt(parts[1], 16)),
+                    UUID.fromString(parts[2])
+            );
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class PostSearchHitDto {
+
+    private PostSummaryDto post;
+    /**
+     * Fragments of the post text around the matched words, which are wrapped in {@code <mark>}.
+     */
+    private String highlight;
+}
@@ -0,0 +1,20 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class PostSearchPageDto {
+
+    private List<PostSearchHitDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private boolean truncated;
+}
@@ -0,0 +1,23 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Accessors(chain = true)
+public class SearchIndexStatisticsDto {
+
+    private boolean enabled;
+    private boolean ready;
+    private long documents;
+    private long deletedDocuments;
+    private long terms;
+    private long postings;
+    private long postingBytes;
+    private long estimatedBytes;
+    private long estimatedBytesPerMillionTerms;
+}
@@ -0,0 +1,20 @@
+package ru.solonchev.blogback.web.dto;
+
+import lombok.Value;
+import ru.solonchev.blogback.persistence.model.Tag;
+
+import java.util.UUID;
+
+/**
+ * Immutable, session-independent view of a tag that is safe to keep in a shared cache.
+ */
+@Value
+public class TagSnapshot {
+
+    UUID id;
+    String name;
+
+    public static TagSnapshot of(Tag tag) {
+        return new TagSnapshot(tag.getId(), tag.getName());
+    }
+}
@@ -2,7 +2,7 @@ package ru.solonchev.blogback.web.mapper;
 
 import org.mapstruct.*;
 import ru.solonchev.blogback.persistence.model.Category;
-import ru.solonchev.blogback.persistence.model.PostStatus;
+import ru.solonchev.blogback.persistence.projection.CategoryPostCountView;
 import ru.solonchev.blogback.web.dto.CategoryDto;
 import ru.solonchev.blogback.web.dto.CreateCategoryRequest;
 
@@ -12,20 +12,12 @@ import java.util.List;
         unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface CategoryMapper {
 
-    @Mapping(target = "postCount", source = ".", qualifiedByName = "mapPostCount")
+    @Mapping(target = "postCount", source = "publishedPostCount")
     CategoryDto mapEntityToDto(Category source);
 
-    List<CategoryDto> mapListEntityToListDto(List<Category> source);
+    CategoryDto mapViewToDto(CategoryPostCountView source);
 
-    Category mapCreateCategoryRequestToEntity(CreateCategoryRequest source);
+    List<CategoryDto> mapListViewToListDto(List<CategoryPostCountView> source);
 
-    @Named(value = "mapPostCount")
-    default long mapPostCount(Category source) {
-        if (source.getPosts() == null) {
-            return 0;
-        }
-        return source.getPosts().stream()
-                .filter(post -> post.getStatus().equals(PostStatus.PUBLISHED))
-                .count();
-    }
+    Category mapCreateCategoryRequestToEntity(CreateCategoryRequest source);
 }
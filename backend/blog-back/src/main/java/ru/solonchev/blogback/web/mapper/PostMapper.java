@@ -1,12 +1,17 @@
 package ru.solonchev.blogback.web.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
 import ru.solonchev.blogback.persistence.model.Post;
+import ru.solonchev.blogback.persistence.projection.PostSummaryView;
 import ru.solonchev.blogback.web.dto.PostDto;
+import ru.solonchev.blogback.web.dto.PostSummaryDto;
+import ru.solonchev.blogback.web.dto.TagResponse;
 
 import java.util.List;
+import java.util.Set;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
         unmappedTargetPolicy = ReportingPolicy.IGNORE,
@@ -17,4 +22,11 @@ public interface PostMapper {
     PostDto mapToDto(Post post);
 
     List<PostDto> mapToListDto(List<Post> posts);
+
+    @Mapping(target = "author.id", source = "view.authorId")
+    @Mapping(target = "author.name", source = "view.authorName")
+    @Mapping(target = "category.id", source = "view.categoryId")
+    @Mapping(target = "category.name", source = "view.categoryName")
+    @Mapping(target = "tags", source = "tags")
+    PostSummaryDto mapToSummaryDto(PostSummaryView view, Set<TagResponse> tags);
 }
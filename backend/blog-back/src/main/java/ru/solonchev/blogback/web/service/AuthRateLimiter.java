@@ -0,0 +1,101 @@
+package ru.solonchev.blogback.web.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.solonchev.blogback.config.RateLimitProperties;
+import ru.solonchev.blogback.web.exception.RateLimitExceededException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits login and signup attempts per client IP and per email with lock-free token buckets.
+ * Buckets live in a bounded Caffeine cache and are dropped after a full idle period, when they would
+ * have refilled anyway, so memory stays bounded under address or email spraying.
+ */
+@Service
+public class AuthRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoTime;
+    private final Cache<String, TokenBucket> buckets;
+
+    @Autowired
+    public AuthRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AuthRateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        Duration longestPeriod = properties.getPerIp().getPeriod().compareTo(properties.getPerEmail().getPeriod()) > 0
+                ? properties.getPerIp().getPeriod()
+                : properties.getPerEmail().getPeriod();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(longestPeriod)
+                .build();
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        check("login", clientIp, email);
+    }
+
+    public void checkSignup(String clientIp, String email) {
+        check("signup", clientIp, email);
+    }
+
+    private void check(String action, String clientIp, String email) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        acquire(action + ":ip:" + clientIp, properties.getPerIp());
+        if (email != null) {
+            acquire(action + ":email:" + email.toLowerCase(Locale.ROOT), properties.getPerEmail());
+        }
+    }
+
+    private void acquire(String key, RateLimitProperties.Bucket limit) {
+        long waitNanos = buckets.get(key, k -> new TokenBucket(limit)).tryAcquire(nanoTime.getAsLong());
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException("Too many attempts, try again later", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Token bucket kept as a single theoretical arrival time (GCRA), updated with compare-and-set.
+     */
+    private static class TokenBucket {
+
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final AtomicLong theoreticalArrival;
+
+        TokenBucket(RateLimitProperties.Bucket limit) {
+            this.emissionIntervalNanos = limit.getPeriod().toNanos() / limit.getCapacity();
+            this.burstNanos = emissionIntervalNanos * limit.getCapacity();
+            this.theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+        }
+
+        /**
+         * @return {@code 0} if a token was taken, otherwise nanoseconds until the next token is available
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = theoreticalArrival.get();
+                long next = Math.max(current, now) + emissionIntervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (theoreticalArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -1,47 +1,72 @@
 package ru.solonchev.blogback.web.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import ru.solonchev.blogback.security.BlogUserDetails;
+import ru.solonchev.blogback.security.JwtKeys;
+import ru.solonchev.blogback.security.VerifiedToken;
+import ru.solonchev.blogback.security.VerifiedTokenCache;
 
-import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationService {
 
-    private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
+    private final UserService userService;
+    private final JwtKeys jwtKeys;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    @Value("${jwt.user-check.enabled:false}")
+    private boolean userCheckEnabled;
 
     private static final Long JWT_EXPIRY_MS = 86400000L;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String NAME_CLAIM = "name";
+    private static final String ROLES_CLAIM = "roles";
 
-    public UserDetails authenticate(String email, String password) {
+    /**
+     * Loads the account a login is checked against. The password itself is checked on the hashing pool,
+     * see {@link PasswordHashingService#matches}.
+     */
+    public Optional<UserDetails> findUser(String email) {
         try {
-            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, password);
-            Authentication authentication = authenticationManager.authenticate(authToken);
-            if (authentication != null && authentication.isAuthenticated()) {
-                return (UserDetails) authentication.getPrincipal();
-            }
+            return Optional.of(userDetailsService.loadUserByUsername(email));
+        } catch (UsernameNotFoundException exception) {
+            return Optional.empty();
+        }
+    }
+
+    public UserDetails checkCredentials(Optional<UserDetails> user, boolean passwordMatches) {
+        if (user.isEmpty() || !passwordMatches) {
             throw new BadCredentialsException("Неверные учетные данные");
+        }
+        try {
+            accountStatusChecker.check(user.get());
+            return user.get();
         } catch (AuthenticationException exception) {
             throw new BadCredentialsException("Error while authenticate");
         }
@@ -49,34 +74,65 @@ public class AuthenticationService {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof BlogUserDetails blogUserDetails) {
+            claims.put(USER_ID_CLAIM, blogUserDetails.getId().toString());
+            claims.put(NAME_CLAIM, blogUserDetails.getName());
+        }
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, jwtKeys.getSigningKeyId())
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + JWT_EXPIRY_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(jwtKeys.getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public UserDetails validateToken(String token) {
-        String username = extractUsername(token);
-        return userDetailsService.loadUserByUsername(username);
+        UserDetails userDetails = verifiedTokenCache.get(token, this::verifyToken).principal();
+        if (userCheckEnabled && userDetails instanceof BlogUserDetails blogUserDetails
+                && !userService.isExistsById(blogUserDetails.getId())) {
+            throw new BadCredentialsException("User no longer exists: " + blogUserDetails.getId());
+        }
+        return userDetails;
     }
 
-    private String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+    /**
+     * Builds the principal from the verified claims alone. Tokens issued before the claims were
+     * introduced carry only a subject and still resolve the user from the database.
+     */
+    private VerifiedToken verifyToken(String token) {
+        Claims claims = extractAllClaims(token);
+        Instant expiresAt = claims.getExpiration().toInstant();
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return new VerifiedToken(userDetailsService.loadUserByUsername(claims.getSubject()), expiresAt);
+        }
+        BlogUserDetails userDetails = BlogUserDetails.fromClaims(
+                UUID.fromString(userId),
+                claims.get(NAME_CLAIM, String.class),
+                claims.getSubject(),
+                extractRoles(claims)
+        );
+        return new VerifiedToken(userDetails, expiresAt);
+    }
+
+    private List<String> extractRoles(Claims claims) {
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (roles == null) {
+            return List.of(BlogUserDetails.DEFAULT_ROLE);
+        }
+        return roles.stream()
+                .map(String::valueOf)
+                .toList();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return jwtKeys.getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
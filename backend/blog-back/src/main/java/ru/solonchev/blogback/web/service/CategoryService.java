@@ -3,14 +3,15 @@ package ru.solonchev.blogback.web.service;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.solonchev.blogback.config.CacheNames;
 import ru.solonchev.blogback.persistence.model.Category;
 import ru.solonchev.blogback.persistence.repository.CategoryRepository;
 import ru.solonchev.blogback.web.dto.CategoryDto;
+import ru.solonchev.blogback.web.dto.CategorySnapshot;
 import ru.solonchev.blogback.web.dto.CreateCategoryRequest;
 import ru.solonchev.blogback.web.dto.UpdateCategoryRequestDto;
 import ru.solonchev.blogback.web.mapper.CategoryMapper;
@@ -26,13 +27,13 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
 
-    @Cacheable(value = "categories")
+    @Cacheable(value = CacheNames.CATEGORIES, key = "'all'")
     public List<CategoryDto> getCategories() {
-        return categoryMapper.mapListEntityToListDto(categoryRepository.findAllWithPostCount());
+        return categoryMapper.mapListViewToListDto(categoryRepository.findAllWithPostCount());
     }
 
     @Transactional
-    @CacheEvict(value = "categories", allEntries = true, condition = "#result != null")
+    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true, condition = "#result != null")
     public CategoryDto createCategory(CreateCategoryRequest request) {
         if (categoryRepository.existsByNameIgnoreCase(request.getName())) {
             throw new IllegalArgumentException("Category already exists with name: " + request.getName());
@@ -43,8 +44,10 @@ public class CategoryService {
     }
 
     @Caching(
-            evict = @CacheEvict(value = "categories", allEntries = true),
-            put = @CachePut(value = "category", key = "#categoryId")
+            evict = {
+                    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true),
+                    @CacheEvict(value = CacheNames.CATEGORY, key = "#categoryId")
+            }
     )
     public CategoryDto updateCategory(UUID categoryId, UpdateCategoryRequestDto request) {
         Category category = categoryRepository.findById(categoryId)
@@ -55,8 +58,8 @@ public class CategoryService {
 
     @Caching(
             evict = {
-                    @CacheEvict(value = "categories", allEntries = true),
-                    @CacheEvict(value = "category", key = "#id")
+                    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true),
+                    @CacheEvict(value = CacheNames.CATEGORY, key = "#id")
             }
     )
     public void deleteCategory(UUID id) {
@@ -69,9 +72,22 @@ public class CategoryService {
         }
     }
 
-    @Cacheable(value = "category", key = "#categoryId")
-    public Category findCategoryById(UUID categoryId) {
+    @Cacheable(value = CacheNames.CATEGORY, key = "#categoryId")
+    public CategorySnapshot findCategoryById(UUID categoryId) {
         return categoryRepository.findById(categoryId)
+                .map(CategorySnapshot::of)
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + categoryId));
     }
+
+    /**
+     * Returns an unloaded reference for associating an already validated category with a post.
+     */
+    public Category getCategoryReference(UUID categoryId) {
+        return categoryRepository.getReferenceById(categoryId);
+    }
+
+    @Transactional
+    public void adjustPublishedPostCount(UUID categoryId, int delta) {
+        categoryRepository.adjustPublishedPostCount(categoryId, delta);
+    }
 }
@@ -0,0 +1,92 @@
+package ru.solonchev.blogback.web.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import ru.solonchev.blogback.config.PasswordHashingProperties;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a dedicated bounded pool so bursts of logins and signups cannot occupy request threads.
+ * Submissions beyond the pool's queue capacity fail fast with {@link RejectedExecutionException}.
+ * <p>
+ * Only the hash itself runs on the pool. The returned futures complete on a virtual thread, so stages chained
+ * onto them, such as saving the user, never hold a hashing thread.
+ * <p>
+ * The pool is monitored as {@code executor*} meters tagged {@code name=passwordHashing}: {@code executor.queued}
+ * is the queue depth, the {@code executor} timer the hashing latency and {@code executor.idle} the queue wait.
+ * It is deliberately not a bean, so it never replaces Boot's application task executor.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final ExecutorService executor;
+    private final ExecutorService completionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final PasswordEncoder passwordEncoder;
+
+    private volatile String unknownUserPassword;
+
+    @Autowired
+    public PasswordHashingService(PasswordHashingProperties properties, PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry) {
+        this(ExecutorServiceMetrics.monitor(meterRegistry, new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        ), "passwordHashing"), passwordEncoder);
+    }
+
+    PasswordHashingService(ExecutorService executor, PasswordEncoder passwordEncoder) {
+        this.executor = executor;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against a stored hash. A {@code null} hash, for an unknown user, is never a match
+     * but still costs one hash, so unknown emails cannot be told apart by response time.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (encodedPassword == null) {
+                passwordEncoder.matches(rawPassword, unknownUserPassword());
+                return false;
+            }
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        });
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor)
+                .whenCompleteAsync((result, exception) -> {
+                }, completionExecutor);
+    }
+
+    private String unknownUserPassword() {
+        String password = unknownUserPassword;
+        if (password == null) {
+            password = passwordEncoder.encode("userNotFoundPassword");
+            unknownUserPassword = password;
+        }
+        return password;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        completionExecutor.shutdown();
+    }
+}
@@ -1,21 +1,37 @@
 package ru.solonchev.blogback.web.service;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.solonchev.blogback.config.CacheNames;
+import ru.solonchev.blogback.config.SearchProperties;
 import ru.solonchev.blogback.persistence.model.*;
+import ru.solonchev.blogback.persistence.projection.PostContentView;
+import ru.solonchev.blogback.persistence.projection.PostSearchView;
+import ru.solonchev.blogback.persistence.projection.PostSummaryView;
+import ru.solonchev.blogback.persistence.projection.PostTagView;
 import ru.solonchev.blogback.persistence.repository.PostRepository;
-import ru.solonchev.blogback.web.dto.CreatePostRequestDto;
-import ru.solonchev.blogback.web.dto.PostDto;
-import ru.solonchev.blogback.web.dto.UpdatePostRequestDto;
+import ru.solonchev.blogback.search.PostFilterIndexer;
+import ru.solonchev.blogback.search.PostIndexer;
+import ru.solonchev.blogback.search.PostSearchIndex;
+import ru.solonchev.blogback.search.TagMatch;
+import ru.solonchev.blogback.web.dto.*;
 import ru.solonchev.blogback.web.mapper.PostMapper;
+import ru.solonchev.blogback.web.mapper.TagMapper;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
+@Timed("blog.post.service")
 public class PostService {
 
     private final PostRepository postRepository;
@@ -23,74 +39,293 @@ public class PostService {
     private final UserService userService;
     private final TagService tagService;
     private final PostMapper postMapper;
+    private final TagMapper tagMapper;
+    private final PostIndexer postIndexer;
+    private final PostFilterIndexer postFilterIndexer;
+    private final SearchProperties searchProperties;
 
-    private static final int WORDS_PER_MINUTE = 200;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 256;
+    private static final int MAX_IDS_PER_QUERY = 1000;
 
+    /**
+     * Published posts, newest first, optionally within a category and carrying {@code tagId} or all or any of
+     * {@code tagIds}, as {@code match} says. A {@code tagId} given together with {@code tagIds} is one more of them.
+     */
     @Transactional(readOnly = true)
-    public List<PostDto> findAllPosts(UUID categoryId, UUID tagId) {
+    public List<PostSummaryDto> findAllPosts(UUID categoryId, UUID tagId, Set<UUID> tagIds, String match) {
+        return mapToSummaryDtos(findPublishedPage(categoryId, tagId, tagIds, match, null, Limit.unlimited()));
+    }
+
+    @Transactional(readOnly = true)
+    public PostPageDto findPostsPage(UUID categoryId, UUID tagId, Set<UUID> tagIds, String match, String cursor,
+                                     int limit) {
+        checkPageSize(limit);
+        PostCursor after = cursor == null || cursor.isBlank() ? null : PostCursor.decode(cursor);
+        List<PostSummaryView> posts = findPublishedPage(categoryId, tagId, tagIds, match, after, Limit.of(limit + 1));
+
+        boolean hasNext = posts.size() > limit;
+        List<PostSummaryView> page = hasNext ? posts.subList(0, limit) : posts;
+        return new PostPageDto()
+                .setContent(mapToSummaryDtos(page))
+                .setNextCursor(hasNext ? PostCursor.of(page.getLast()).encode() : null)
+                .setHasNext(hasNext);
+    }
+
+    /**
+     * Published posts matching {@code query}, best matches first, optionally within a category and carrying every
+     * one of {@code tagIds}. The query takes web search syntax: quoted phrases, {@code or} between words and
+     * {@code -} to exclude a word. The in-memory engine also expands {@code word*} to every indexed word with that
+     * prefix. The database engine ranks only the newest {@code search.max-ranked-matches} matches and marks the page
+     * {@code truncated} when more posts match, see {@link PostRepository#SEARCH_HITS}.
+     * <p>
+     * A cursor only continues the engine that issued it; one issued before the in-memory index became ready is
+     * rejected with {@link IllegalStateException}, and the search has to start over.
+     */
+    @Transactional(readOnly = true)
+    public PostSearchPageDto searchPosts(String query, UUID categoryId, Set<UUID> tagIds, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        checkPageSize(limit);
+        PostSearchCursor after = cursor == null || cursor.isBlank() ? null : PostSearchCursor.decode(cursor);
+        if (categoryId != null) {
+            categoryService.findCategoryById(categoryId);
+        }
+        Set<UUID> requiredTagIds = tagIds == null ? Set.of() : tagIds;
+        if (!requiredTagIds.isEmpty()) {
+            tagService.findTagsByIds(requiredTagIds);
+        }
+        SearchProperties.Engine engine = postIndexer.isReady()
+                ? SearchProperties.Engine.MEMORY
+                : SearchProperties.Engine.DATABASE;
+        if (after != null && after.getEngine() != engine) {
+            throw new IllegalStateException("Search results have changed, start the search again");
+        }
+        return engine == SearchProperties.Engine.MEMORY
+                ? searchIndex(query, categoryId, requiredTagIds, after, limit)
+                : searchDatabase(query, categoryId, requiredTagIds, after, limit);
+    }
+
+    private PostSearchPageDto searchDatabase(String query, UUID categoryId, Set<UUID> tagIds, PostSearchCursor after,
+                                             int limit) {
+        String category = categoryId == null ? "" : categoryId.toString();
+        String tags = tagIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+        int maxMatches = searchProperties.getMaxRankedMatches();
+        List<PostSearchView> hits = after == null
+                ? postRepository.search(query, category, tags, maxMatches, limit + 1)
+                : postRepository.searchAfter(query, category, tags, maxMatches, after.getRank(), after.getId(),
+                        limit + 1);
+
+        boolean hasNext = hits.size() > limit;
+        List<PostSearchView> page = hasNext ? hits.subList(0, limit) : hits;
+        List<PostSummaryDto> posts = mapToSummaryDtos(page);
+        return new PostSearchPageDto()
+                .setContent(IntStream.range(0, page.size())
+                        .mapToObj(i -> new PostSearchHitDto(posts.get(i), page.get(i).getHighlight()))
+                        .toList())
+                .setNextCursor(hasNext ? PostSearchCursor.of(page.getLast()).encode() : null)
+                .setHasNext(hasNext)
+                .setTruncated(!hits.isEmpty() && hits.getFirst().isTruncated());
+    }
+
+    private PostSearchPageDto searchIndex(String query, UUID categoryId, Set<UUID> tagIds, PostSearchCursor after,
+                                          int limit) {
+        List<PostSearchIndex.Hit> hits = postIndexer.search(query, categoryId, tagIds, after, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        List<PostSearchIndex.Hit> page = hasNext ? hits.subList(0, limit) : hits;
+
+        List<UUID> postIds = page.stream().map(PostSearchIndex.Hit::postId).toList();
+        Map<UUID, PostSummaryView> summaries = postRepository.findSummariesByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostSummaryView::getId, summary -> summary));
+        Map<UUID, String> contents = postRepository.findContentsByIdIn(postIds).stream()
+                .collect(Collectors.toMap(PostContentView::getId, PostContentView::getContent));
+        // a hit deleted since the search ran has no summary and is left out
+        List<PostSummaryView> found = page.stream()
+                .map(hit -> summaries.get(hit.postId()))
+                .filter(Objects::nonNull)
+                .toList();
+        List<PostSummaryDto> posts = mapToSummaryDtos(found);
+        PostSearchIndex.Hit last = hasNext ? page.getLast() : null;
+        return new PostSearchPageDto()
+                .setContent(IntStream.range(0, found.size())
+                        .mapToObj(i -> new PostSearchHitDto(posts.get(i), postIndexer.highlight(
+                                contents.getOrDefault(found.get(i).getId(), found.get(i).getExcerpt()), query)))
+                        .toList())
+                .setNextCursor(last == null ? null
+                        : new PostSearchCursor(SearchProperties.Engine.MEMORY, last.score(), last.postId()).encode())
+                .setHasNext(hasNext);
+    }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private List<PostSummaryView> findPublishedPage(UUID categoryId, UUID tagId, Set<UUID> tagIds, String match,
+                                                    PostCursor after, Limit limit) {
+        TagMatch tagMatch = TagMatch.parse(match);
+        if (categoryId != null) {
+            categoryService.findCategoryById(categoryId);
+        }
+        if (tagIds != null && !tagIds.isEmpty()) {
+            Set<UUID> filterTagIds = new HashSet<>(tagIds);
+            if (tagId != null) {
+                filterTagIds.add(tagId);
+            }
+            tagService.findTagsByIds(filterTagIds);
+            return findFilteredPage(categoryId, filterTagIds, tagMatch, after, limit);
+        }
+        if (tagId != null) {
+            tagService.findTagById(tagId);
+        }
+        PostStatus status = PostStatus.PUBLISHED;
         if (categoryId != null && tagId != null) {
-            Category category = categoryService.findCategoryById(categoryId);
-            Tag tag = tagService.findTagById(tagId);
-            return postMapper.mapToListDto(postRepository.findAllByStatusAndCategoryAndTagsContaining(PostStatus.PUBLISHED, category, tag));
+            return after == null
+                    ? postRepository.findPageByStatusAndCategoryAndTag(status, categoryId, tagId, limit)
+                    : postRepository.findPageByStatusAndCategoryAndTagAfter(status, categoryId, tagId, after.getCreatedAt(), after.getId(), limit);
         }
         if (categoryId != null) {
-            Category category = categoryService.findCategoryById(categoryId);
-            return postMapper.mapToListDto(postRepository.findAllByStatusAndCategory(PostStatus.PUBLISHED, category));
+            return after == null
+                    ? postRepository.findPageByStatusAndCategory(status, categoryId, limit)
+                    : postRepository.findPageByStatusAndCategoryAfter(status, categoryId, after.getCreatedAt(), after.getId(), limit);
         }
         if (tagId != null) {
-            Tag tag = tagService.findTagById(tagId);
-            return postMapper.mapToListDto(postRepository.findAllByStatusAndTagsContaining(PostStatus.PUBLISHED, tag));
+            return after == null
+                    ? postRepository.findPageByStatusAndTag(status, tagId, limit)
+                    : postRepository.findPageByStatusAndTagAfter(status, tagId, after.getCreatedAt(), after.getId(), limit);
         }
-        return postMapper.mapToListDto(postRepository.findAllByStatus(PostStatus.PUBLISHED));
+        return after == null
+                ? postRepository.findPageByStatus(status, limit)
+                : postRepository.findPageByStatusAfter(status, after.getCreatedAt(), after.getId(), limit);
+    }
+
+    /**
+     * Filtering by several tags is answered by the in-memory bitmaps, which yield the ids of the page in feed order;
+     * their summaries are then read by primary key, in a single query for any paged request.
+     */
+    private List<PostSummaryView> findFilteredPage(UUID categoryId, Set<UUID> tagIds, TagMatch match, PostCursor after,
+                                                   Limit limit) {
+        List<UUID> postIds = postFilterIndexer.findPublished(categoryId, tagIds, match, after,
+                limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, PostSummaryView> summaries = findInChunks(postIds, postRepository::findSummariesByIdIn).stream()
+                .collect(Collectors.toMap(PostSummaryView::getId, summary -> summary));
+        // a post deleted since the ids were selected has no summary and is left out
+        return postIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Transactional(readOnly = true)
-    public List<PostDto> findAllUserDrafts(UUID userId) {
+    public List<PostSummaryDto> findAllUserDrafts(UUID userId) {
         User user = userService.findUserById(userId);
-        return postMapper.mapToListDto(postRepository.findAllByAuthorAndStatus(user, PostStatus.DRAFT));
+        return mapToSummaryDtos(postRepository.findAllSummariesByAuthorAndStatus(user, PostStatus.DRAFT));
+    }
+
+    private List<PostSummaryDto> mapToSummaryDtos(List<? extends PostSummaryView> posts) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> postIds = posts.stream().map(PostSummaryView::getId).toList();
+        Map<UUID, Set<TagResponse>> tagsByPostId = findInChunks(postIds, postRepository::findTagsByPostIdIn).stream()
+                .collect(Collectors.groupingBy(
+                        PostTagView::getPostId,
+                        Collectors.mapping(tagMapper::mapViewToTagResponse, Collectors.toSet())
+                ));
+        return posts.stream()
+                .map(post -> postMapper.mapToSummaryDto(post, tagsByPostId.getOrDefault(post.getId(), Set.of())))
+                .toList();
+    }
+
+    /**
+     * Runs an {@code in :ids} query over at most {@value #MAX_IDS_PER_QUERY} ids at a time. Unpaged lists can hold
+     * every published post, which would exceed the bind parameter limit of PostgreSQL in one statement.
+     */
+    private static <T> List<T> findInChunks(List<UUID> ids, Function<List<UUID>, List<T>> query) {
+        if (ids.size() <= MAX_IDS_PER_QUERY) {
+            return query.apply(ids);
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            result.addAll(query.apply(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY))));
+        }
+        return result;
     }
 
     @Transactional
+    @Caching(
+            evict = {
+                    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true),
+                    @CacheEvict(value = CacheNames.TAG_PAGES, allEntries = true)
+            }
+    )
     public PostDto createPost(CreatePostRequestDto request, UUID userId) {
         User author = userService.findUserById(userId);
+        TextStatistics statistics = TextStatistics.of(request.getContent());
         Post post = new Post()
                 .setTitle(request.getTitle())
                 .setContent(request.getContent())
+                .setExcerpt(statistics.excerpt())
                 .setStatus(request.getStatus())
                 .setAuthor(author)
-                .setReadingTime(calculateReadingTime(request.getContent()));
-        Category category = categoryService.findCategoryById(request.getCategoryId());
-        post.setCategory(category);
+                .setReadingTime(statistics.readingTime());
+        categoryService.findCategoryById(request.getCategoryId());
+        post.setCategory(categoryService.getCategoryReference(request.getCategoryId()));
 
         Set<UUID> tagIds = request.getTagIds();
-        List<Tag> tags = tagService.findTagsByIds(tagIds);
-        post.setTags(new HashSet<>(tags));
+        tagService.findTagsByIds(tagIds);
+        post.setTags(new HashSet<>(tagService.getTagReferences(tagIds)));
 
-        return postMapper.mapToDto(postRepository.save(post));
+        Post savedPost = postRepository.save(post);
+        adjustPublishedPostCounts(PublishedCounterKeys.EMPTY, PublishedCounterKeys.of(savedPost));
+        postIndexer.indexAfterCommit(savedPost);
+        postFilterIndexer.putAfterCommit(savedPost);
+        return postMapper.mapToDto(savedPost);
     }
 
     @Transactional
+    @Caching(
+            evict = {
+                    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true),
+                    @CacheEvict(value = CacheNames.TAG_PAGES, allEntries = true)
+            }
+    )
     public PostDto updatePost(UUID postId, UpdatePostRequestDto updatePostRequestDto) {
-        Post post = postRepository.findById(postId)
+        Post post = postRepository.findLockedById(postId)
                 .orElseThrow(() -> new EntityNotFoundException("Post not found with id: " + postId));
+        PublishedCounterKeys before = PublishedCounterKeys.of(post);
+        TextStatistics statistics = TextStatistics.of(updatePostRequestDto.getContent());
         post.setTitle(updatePostRequestDto.getTitle());
         post.setContent(updatePostRequestDto.getContent());
+        post.setExcerpt(statistics.excerpt());
         post.setStatus(updatePostRequestDto.getStatus());
-        post.setReadingTime(calculateReadingTime(updatePostRequestDto.getContent()));
+        post.setReadingTime(statistics.readingTime());
 
         UUID updateRequestCategoryId = updatePostRequestDto.getCategoryId();
         if (!post.getCategory().getId().equals(updateRequestCategoryId)) {
-            Category category = categoryService.findCategoryById(updateRequestCategoryId);
-            post.setCategory(category);
+            categoryService.findCategoryById(updateRequestCategoryId);
+            post.setCategory(categoryService.getCategoryReference(updateRequestCategoryId));
         }
 
         Set<UUID> existingTagIds = post.getTags().stream().map(Tag::getId).collect(Collectors.toSet());
         Set<UUID> updateRequestTagIds = updatePostRequestDto.getTagIds();
         if (existingTagIds != updateRequestTagIds) {
-            List<Tag> newTags = tagService.findTagsByIds(updateRequestTagIds);
-            post.setTags(new HashSet<>(newTags));
+            tagService.findTagsByIds(updateRequestTagIds);
+            post.setTags(new HashSet<>(tagService.getTagReferences(updateRequestTagIds)));
         }
-        return postMapper.mapToDto(postRepository.save(post));
+        Post savedPost = postRepository.save(post);
+        adjustPublishedPostCounts(before, PublishedCounterKeys.of(savedPost));
+        postIndexer.indexAfterCommit(savedPost);
+        postFilterIndexer.putAfterCommit(savedPost);
+        return postMapper.mapToDto(savedPost);
     }
 
     public PostDto getPost(UUID postId) {
@@ -99,15 +334,60 @@ public class PostService {
         return postMapper.mapToDto(post);
     }
 
+    @Transactional
+    @Caching(
+            evict = {
+                    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true),
+                    @CacheEvict(value = CacheNames.TAG_PAGES, allEntries = true)
+            }
+    )
     public void deletePost(UUID postId) {
-        postRepository.deleteById(postId);
+        postRepository.findLockedById(postId).ifPresent(post -> {
+            PublishedCounterKeys before = PublishedCounterKeys.of(post);
+            postRepository.delete(post);
+            adjustPublishedPostCounts(before, PublishedCounterKeys.EMPTY);
+            postIndexer.removeAfterCommit(postId);
+            postFilterIndexer.removeAfterCommit(postId);
+        });
     }
 
-    private Integer calculateReadingTime(String content) {
-        if (content == null || content.isEmpty()) {
-            return 0;
+    /**
+     * Moves the category and tag counters from the state a post had before a write to the state it has after it.
+     * Only the difference is touched, so editing a published post without moving it issues no updates. Callers read
+     * {@code before} under the post's row lock, so concurrent writes to one post never apply a difference twice.
+     */
+    private void adjustPublishedPostCounts(PublishedCounterKeys before, PublishedCounterKeys after) {
+        if (!Objects.equals(before.categoryId(), after.categoryId())) {
+            if (before.categoryId() != null) {
+                categoryService.adjustPublishedPostCount(before.categoryId(), -1);
+            }
+            if (after.categoryId() != null) {
+                categoryService.adjustPublishedPostCount(after.categoryId(), 1);
+            }
+        }
+        Set<UUID> removedTagIds = new HashSet<>(before.tagIds());
+        removedTagIds.removeAll(after.tagIds());
+        Set<UUID> addedTagIds = new HashSet<>(after.tagIds());
+        addedTagIds.removeAll(before.tagIds());
+        tagService.adjustPublishedPostCount(removedTagIds, -1);
+        tagService.adjustPublishedPostCount(addedTagIds, 1);
+    }
+
+    /**
+     * Category and tags a post contributes to the published counters; empty unless the post is published.
+     */
+    private record PublishedCounterKeys(UUID categoryId, Set<UUID> tagIds) {
+
+        static final PublishedCounterKeys EMPTY = new PublishedCounterKeys(null, Set.of());
+
+        static PublishedCounterKeys of(Post post) {
+            if (post.getStatus() != PostStatus.PUBLISHED) {
+                return EMPTY;
+            }
+            return new PublishedCounterKeys(
+                    post.getCategory().getId(),
+                    post.getTags().stream().map(Tag::getId).collect(Collectors.toSet())
+            );
         }
-        int wordCount = content.trim().split("\\s+").length;
-        return Math.ceilDiv(wordCount, WORDS_PER_MINUTE);
     }
 }
@@ -0,0 +1,53 @@
+package ru.solonchev.blogback.web.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.solonchev.blogback.config.CacheNames;
+import ru.solonchev.blogback.persistence.repository.CategoryRepository;
+import ru.solonchev.blogback.persistence.repository.TagRepository;
+import ru.solonchev.blogback.search.TagSuggester;
+
+/**
+ * Periodically recomputes the denormalized published post counters from the posts themselves,
+ * correcting any drift left by writes that bypassed {@link PostService}.
+ * <p>
+ * Runs under repeatable read, so both updates count posts in one snapshot. A post write that commits a counter change
+ * after that snapshot makes the run fail on the counter row instead of overwriting the change with a stale count;
+ * the next run corrects whatever drift remains.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PublishedPostCountReconciler {
+
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final TagSuggester tagSuggester;
+
+    @Scheduled(cron = "${counters.reconcile-cron:0 0 3 * * *}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Caching(
+            evict = {
+                    @CacheEvict(value = CacheNames.CATEGORIES, allEntries = true),
+                    @CacheEvict(value = CacheNames.TAG_PAGES, allEntries = true)
+            }
+    )
+    public void reconcile() {
+        int categories = categoryRepository.reconcilePublishedPostCounts();
+        int tags = tagRepository.reconcilePublishedPostCounts();
+        if (categories > 0 || tags > 0) {
+            log.warn("Corrected published post counters: {} categories, {} tags", categories, tags);
+            if (tags > 0) {
+                tagSuggester.reloadAfterCommit();
+            }
+        } else {
+            log.info("Published post counters are consistent");
+        }
+    }
+}
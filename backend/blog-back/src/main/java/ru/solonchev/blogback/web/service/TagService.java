@@ -3,43 +3,45 @@ package ru.solonchev.blogback.web.service;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.solonchev.blogback.config.CacheNames;
 import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.projection.TagPostCountView;
 import ru.solonchev.blogback.persistence.repository.TagRepository;
+import ru.solonchev.blogback.search.TagSuggester;
 import ru.solonchev.blogback.web.dto.CreateTagsRequest;
 import ru.solonchev.blogback.web.dto.TagResponse;
 import ru.solonchev.blogback.web.dto.TagResponseWithPagination;
+import ru.solonchev.blogback.web.dto.TagSnapshot;
 import ru.solonchev.blogback.web.mapper.TagMapper;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "tags")
 @Slf4j
 public class TagService {
 
     private final TagRepository tagRepository;
     private final TagMapper tagMapper;
+    private final TagSuggester tagSuggester;
 
-    @Cacheable(value = "tagsCache", key = "'tags_page_' + #page + '_size_' + #size")
+    private static final int MAX_SUGGESTIONS = 50;
+
+    @Cacheable(value = CacheNames.TAG_PAGES, key = "#page + ':' + #size")
     public TagResponseWithPagination findAllTags(int page, int size) {
         log.info("Find All Tags method");
         Pageable pageable = PageRequest.of(page, size);
-        Page<Tag> tagPage = tagRepository.findAllWithPostCount(pageable);
+        Page<TagPostCountView> tagPage = tagRepository.findAllWithPostCount(pageable);
         List<TagResponse> result = tagPage.getContent().stream()
-                .map(tagMapper::mapToTagResponse)
+                .map(tagMapper::mapCountViewToTagResponse)
                 .toList();
         return new TagResponseWithPagination()
                 .setContent(result)
@@ -48,44 +50,95 @@ public class TagService {
                 .setCurrentPage(page);
     }
 
+    /**
+     * Tags whose name starts with {@code prefix}, ignoring case, most used first. Answered from memory.
+     */
+    public List<TagResponse> suggestTags(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Tag name prefix is required");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return tagSuggester.suggest(prefix.strip(), limit);
+    }
+
+    /**
+     * Creates the requested tags that do not exist yet and returns every requested tag, created or not, in the order
+     * of the request. Repeating the request, or sending it concurrently, returns the same tags.
+     */
     @Transactional
-    @CacheEvict(allEntries = true)
+    @CacheEvict(value = CacheNames.TAG_PAGES, allEntries = true)
     public List<TagResponse> createTags(CreateTagsRequest request) {
-        Set<String> existingTagNames = tagRepository.findByNameIn(request.getNames()).stream()
-                .map(Tag::getName)
-                .collect(Collectors.toSet());
-        List<Tag> tagsToSave = new ArrayList<>();
-        for (String tagName : request.getNames()) {
-            if (!existingTagNames.contains(tagName)) {
-                tagsToSave.add(new Tag().setName(tagName));
-            }
+        List<TagPostCountView> createdTags = tagRepository.insertMissing(request.getNames().toArray(String[]::new));
+        Map<String, TagPostCountView> tagsByName = new HashMap<>();
+        createdTags.forEach(tag -> tagsByName.put(tag.getName(), tag));
+        if (createdTags.size() < request.getNames().size()) {
+            Set<String> existingNames = new HashSet<>(request.getNames());
+            existingNames.removeAll(tagsByName.keySet());
+            tagRepository.findWithPostCountByNameIn(existingNames).forEach(tag -> tagsByName.put(tag.getName(), tag));
+        }
+        if (!createdTags.isEmpty()) {
+            tagSuggester.reloadAfterCommit();
         }
-        return tagMapper.mapToListTagResponse(tagRepository.saveAll(tagsToSave));
+        // a tag deleted between the two statements is left out
+        return request.getNames().stream()
+                .map(tagsByName::get)
+                .filter(Objects::nonNull)
+                .map(tagMapper::mapCountViewToTagResponse)
+                .toList();
     }
 
     @Transactional
-    @CacheEvict(allEntries = true)
+    @Caching(
+            evict = {
+                    @CacheEvict(value = CacheNames.TAG_PAGES, allEntries = true),
+                    @CacheEvict(value = CacheNames.TAG, key = "#tagId"),
+                    @CacheEvict(value = CacheNames.TAGS_BY_IDS, allEntries = true)
+            }
+    )
     public void deleteTag(UUID tagId) {
         tagRepository.findById(tagId).ifPresent(tag -> {
             if (!tag.getPosts().isEmpty()) {
                 throw new IllegalStateException("Cannot delete tag with posts");
             }
             tagRepository.deleteById(tagId);
+            tagSuggester.reloadAfterCommit();
         });
     }
 
-    @Cacheable(key = "#tagId")
-    public Tag findTagById(UUID tagId) {
+    @Cacheable(value = CacheNames.TAG, key = "#tagId")
+    public TagSnapshot findTagById(UUID tagId) {
         return tagRepository.findById(tagId)
+                .map(TagSnapshot::of)
                 .orElseThrow(() -> new EntityNotFoundException("Tag not found with id: " + tagId));
     }
 
-    @Cacheable(key = "#tagIds.hashCode()")
-    public List<Tag> findTagsByIds(Set<UUID> tagIds) {
+    @Cacheable(value = CacheNames.TAGS_BY_IDS, key = "T(java.util.Set).copyOf(#tagIds)")
+    public List<TagSnapshot> findTagsByIds(Set<UUID> tagIds) {
         List<Tag> foundedTags = tagRepository.findAllById(tagIds);
         if (foundedTags.size() != tagIds.size()) {
             throw new EntityNotFoundException("Not all specified tag IDs exist");
         }
-        return foundedTags;
+        return foundedTags.stream()
+                .map(TagSnapshot::of)
+                .toList();
+    }
+
+    /**
+     * Returns unloaded references for associating already validated tags with a post.
+     */
+    public List<Tag> getTagReferences(Collection<UUID> tagIds) {
+        return tagIds.stream()
+                .map(tagRepository::getReferenceById)
+                .toList();
+    }
+
+    @Transactional
+    public void adjustPublishedPostCount(Collection<UUID> tagIds, int delta) {
+        if (!tagIds.isEmpty()) {
+            tagRepository.adjustPublishedPostCount(tagIds, delta);
+            tagSuggester.adjustPostCountsAfterCommit(tagIds, delta);
+        }
     }
 }
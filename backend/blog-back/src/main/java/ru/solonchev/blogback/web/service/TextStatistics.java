@@ -0,0 +1,102 @@
+package ru.solonchev.blogback.web.service;
+
+/**
+ * Word count, plain-text length and excerpt of post content, computed in a single pass without
+ * intermediate strings. Apart from the excerpt, the only allocation is a fixed buffer for the first
+ * {@value #EXCERPT_LENGTH} plain-text characters it is cut from, whatever the length of the content.
+ * <p>
+ * Words are runs of non-whitespace in the raw content, tags included, which is how reading time has always
+ * been counted. The plain text drops tags ({@code <...>} up to the next {@code >}) and collapses whitespace
+ * runs into single spaces; {@link #characterCount()} is its length and the excerpt its first
+ * {@value #EXCERPT_LENGTH} characters, cut back to a word boundary. Whitespace is Unicode-aware, so
+ * non-breaking and other Unicode spaces separate words too.
+ */
+public record TextStatistics(int wordCount, int characterCount, String excerpt) {
+
+    public static final int WORDS_PER_MINUTE = 200;
+    public static final int EXCERPT_LENGTH = 200;
+
+    private static final TextStatistics EMPTY = new TextStatistics(0, 0, "");
+    private static final String ELLIPSIS = "...";
+
+    public static TextStatistics of(String content) {
+        if (content == null || content.isEmpty()) {
+            return EMPTY;
+        }
+        int length = content.length();
+        int wordCount = 0;
+        boolean inWord = false;
+
+        // plain text is produced lazily: a separator is emitted only once the next visible character arrives
+        char[] head = new char[EXCERPT_LENGTH + 1];
+        int characterCount = 0;
+        boolean pendingSeparator = false;
+        int tagEnd = -1;
+        boolean noMoreTagEnds = false;
+
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            boolean whitespace = isWhitespace(c);
+            if (!whitespace && !inWord) {
+                wordCount++;
+            }
+            inWord = !whitespace;
+
+            if (i <= tagEnd) {
+                if (i == tagEnd) {
+                    pendingSeparator = true;
+                }
+                continue;
+            }
+            if (c == '<' && !noMoreTagEnds) {
+                tagEnd = content.indexOf('>', i + 1);
+                if (tagEnd >= 0) {
+                    continue;
+                }
+                noMoreTagEnds = true;
+            }
+            if (whitespace) {
+                pendingSeparator = true;
+                continue;
+            }
+            if (pendingSeparator && characterCount > 0) {
+                characterCount = append(head, characterCount, ' ');
+            }
+            pendingSeparator = false;
+            characterCount = append(head, characterCount, c);
+        }
+        return new TextStatistics(wordCount, characterCount, excerpt(head, characterCount));
+    }
+
+    /**
+     * Minutes to read at {@value #WORDS_PER_MINUTE} words per minute, rounded up.
+     */
+    public int readingTime() {
+        return Math.ceilDiv(wordCount, WORDS_PER_MINUTE);
+    }
+
+    private static int append(char[] head, int characterCount, char c) {
+        if (characterCount < head.length) {
+            head[characterCount] = c;
+        }
+        return characterCount + 1;
+    }
+
+    private static String excerpt(char[] head, int characterCount) {
+        if (characterCount <= EXCERPT_LENGTH) {
+            return new String(head, 0, characterCount);
+        }
+        int lastSpace = EXCERPT_LENGTH;
+        while (lastSpace > 0 && head[lastSpace] != ' ') {
+            lastSpace--;
+        }
+        return new String(head, 0, lastSpace > 0 ? lastSpace : EXCERPT_LENGTH) + ELLIPSIS;
+    }
+
+    private static boolean isWhitespace(char c) {
+        if (c > ' ' && c < '\u007F') {
+            return false;
+        }
+        return Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+}
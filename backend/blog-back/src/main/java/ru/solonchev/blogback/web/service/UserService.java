@@ -2,7 +2,9 @@ package ru.solonchev.blogback.web.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import ru.solonchev.blogback.config.CacheNames;
 import ru.solonchev.blogback.persistence.model.User;
 import ru.solonchev.blogback.persistence.repository.UserRepository;
 import ru.solonchev.blogback.web.dto.UserProfileDto;
@@ -28,6 +30,11 @@ public class UserService {
         return userRepository.existsByEmailIgnoreCase(email);
     }
 
+    @Cacheable(value = CacheNames.USER_EXISTS, key = "#userId")
+    public boolean isExistsById(UUID userId) {
+        return userRepository.existsById(userId);
+    }
+
     public UserProfileDto getUserProfileById(UUID userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
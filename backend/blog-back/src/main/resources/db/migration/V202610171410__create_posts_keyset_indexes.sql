@@ -0,0 +1,8 @@
+create index if not exists posts_status_created_at_id_idx
+    on posts (status, created_at desc, id desc);
+
+create index if not exists posts_status_category_id_created_at_id_idx
+    on posts (status, category_id, created_at desc, id desc);
+
+create index if not exists post_tags_tag_id_post_id_idx
+    on post_tags (tag_id, post_id);
\ No newline at end of file
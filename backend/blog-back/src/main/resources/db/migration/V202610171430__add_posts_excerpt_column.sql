@@ -0,0 +1,14 @@
+alter table posts
+    add column if not exists excerpt varchar(256);
+
+update posts p
+set excerpt = case
+                  when length(s.text) > 200 then regexp_replace(left(s.text, 201), '\s+\S*$', '') || '...'
+                  else s.text
+              end
+from (select id, trim(regexp_replace(regexp_replace(content, '<[^>]*>', ' ', 'g'), '\s+', ' ', 'g')) as text
+      from posts) s
+where p.id = s.id;
+
+alter table posts
+    alter column excerpt set not null;
\ No newline at end of file
@@ -0,0 +1,18 @@
+alter table categories
+    add column if not exists published_post_count int not null default 0;
+
+alter table tags
+    add column if not exists published_post_count int not null default 0;
+
+update categories c
+set published_post_count = (select count(*)
+                            from posts p
+                            where p.category_id = c.id
+                              and p.status = 'PUBLISHED');
+
+update tags t
+set published_post_count = (select count(*)
+                            from post_tags pt
+                                     join posts p on p.id = pt.post_id
+                            where pt.tag_id = t.id
+                              and p.status = 'PUBLISHED');
\ No newline at end of file
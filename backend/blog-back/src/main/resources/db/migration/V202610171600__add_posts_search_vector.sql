@@ -0,0 +1,10 @@
+alter table posts
+    add column if not exists search_vector tsvector generated always as (
+        setweight(to_tsvector('russian', title), 'A') || setweight(to_tsvector('russian', content), 'B')
+        ) stored;
+
+create index if not exists posts_search_vector_published_idx
+    on posts using gin (search_vector)
+    where status = 'PUBLISHED';
+
+analyze posts;
\ No newline at end of file
@@ -0,0 +1,122 @@
+package ru.solonchev.blogback.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostFilterIndexTest {
+
+    private final UUID category = UUID.randomUUID();
+    private final UUID otherCategory = UUID.randomUUID();
+    private final UUID javaTag = UUID.randomUUID();
+    private final UUID databaseTag = UUID.randomUUID();
+    private final LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final Map<UUID, LocalDateTime> createdAt = new HashMap<>();
+
+    private PostFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostFilterIndex();
+    }
+
+    @Test
+    @DisplayName("Should list posts with all or any of the tags, newest first")
+    void shouldListPostsWithAllOrAnyOfTheTagsNewestFirst() {
+        UUID both = put(PostStatus.PUBLISHED, category, Set.of(javaTag, databaseTag));
+        UUID javaOnly = put(PostStatus.PUBLISHED, category, Set.of(javaTag));
+        UUID databaseOnly = put(PostStatus.PUBLISHED, otherCategory, Set.of(databaseTag));
+        put(PostStatus.PUBLISHED, category, Set.of());
+
+        assertEquals(List.of(both), select(null, Set.of(javaTag, databaseTag), TagMatch.ALL, null, 10));
+        assertEquals(List.of(databaseOnly, javaOnly, both),
+                select(null, Set.of(javaTag, databaseTag), TagMatch.ANY, null, 10));
+        assertEquals(List.of(javaOnly, both), select(category, Set.of(javaTag, databaseTag), TagMatch.ANY, null, 10));
+    }
+
+    @Test
+    @DisplayName("Should match nothing when every tag is required and one has no posts")
+    void shouldMatchNothingWhenEveryTagIsRequiredAndOneHasNoPosts() {
+        UUID tagged = put(PostStatus.PUBLISHED, category, Set.of(javaTag));
+        UUID unused = UUID.randomUUID();
+
+        assertEquals(List.of(), select(null, Set.of(javaTag, unused), TagMatch.ALL, null, 10));
+        assertEquals(List.of(tagged), select(null, Set.of(javaTag, unused), TagMatch.ANY, null, 10));
+        assertEquals(List.of(), select(UUID.randomUUID(), Set.of(javaTag), TagMatch.ANY, null, 10));
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor post even when it was deleted")
+    void shouldContinueAfterCursorPostEvenWhenItWasDeleted() {
+        List<UUID> posts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posts.add(put(PostStatus.PUBLISHED, category, Set.of(javaTag)));
+        }
+
+        List<UUID> firstPage = select(null, Set.of(javaTag), TagMatch.ALL, null, 2);
+        assertEquals(List.of(posts.get(4), posts.get(3)), firstPage);
+        assertEquals(List.of(posts.get(2), posts.get(1)),
+                select(null, Set.of(javaTag), TagMatch.ALL, posts.get(3), 2));
+
+        index.remove(posts.get(2));
+        assertEquals(List.of(posts.get(1), posts.get(0)),
+                select(null, Set.of(javaTag), TagMatch.ALL, posts.get(2), 10));
+        assertEquals(List.of(), select(null, Set.of(javaTag), TagMatch.ALL, posts.get(0), 10));
+    }
+
+    @Test
+    @DisplayName("Should move an updated post between bitmaps and keep its place in the feed")
+    void shouldMoveUpdatedPostBetweenBitmapsAndKeepItsPlaceInTheFeed() {
+        UUID older = put(PostStatus.DRAFT, category, Set.of(javaTag));
+        UUID newer = put(PostStatus.PUBLISHED, category, Set.of(javaTag));
+        assertEquals(List.of(newer), select(null, Set.of(javaTag), TagMatch.ALL, null, 10));
+
+        index.put(new FilteredPost(older, start, PostStatus.PUBLISHED, otherCategory, Set.of(javaTag, databaseTag)));
+
+        assertEquals(List.of(newer, older), select(null, Set.of(javaTag), TagMatch.ALL, null, 10));
+        assertEquals(List.of(older), select(otherCategory, Set.of(databaseTag), TagMatch.ALL, null, 10));
+        assertEquals(List.of(), select(category, Set.of(databaseTag), TagMatch.ALL, null, 10));
+    }
+
+    @Test
+    @DisplayName("Should place a post that commits after a newer one by its creation time")
+    void shouldPlacePostThatCommitsAfterNewerOneByItsCreationTime() {
+        UUID oldest = put(PostStatus.PUBLISHED, category, Set.of(javaTag));
+        UUID deleted = put(PostStatus.PUBLISHED, category, Set.of(javaTag));
+        UUID committedFirst = UUID.randomUUID();
+        UUID committedLast = UUID.randomUUID();
+        createdAt.put(committedLast, start.plusMinutes(10));
+        createdAt.put(committedFirst, start.plusMinutes(11));
+        index.remove(deleted);
+
+        index.put(new FilteredPost(committedFirst, createdAt.get(committedFirst), PostStatus.PUBLISHED, category,
+                Set.of(javaTag, databaseTag)));
+        index.put(new FilteredPost(committedLast, createdAt.get(committedLast), PostStatus.PUBLISHED, otherCategory,
+                Set.of(javaTag)));
+
+        assertEquals(List.of(committedFirst, committedLast, oldest),
+                select(null, Set.of(javaTag), TagMatch.ALL, null, 10));
+        assertEquals(List.of(committedLast, oldest), select(null, Set.of(javaTag), TagMatch.ALL, committedFirst, 10));
+        assertEquals(List.of(oldest), select(null, Set.of(javaTag), TagMatch.ALL, deleted, 10));
+        assertEquals(List.of(committedFirst), select(null, Set.of(databaseTag), TagMatch.ALL, null, 10));
+        assertEquals(List.of(committedLast), select(otherCategory, Set.of(javaTag), TagMatch.ALL, null, 10));
+    }
+
+    private UUID put(PostStatus status, UUID categoryId, Set<UUID> tagIds) {
+        UUID id = UUID.randomUUID();
+        createdAt.put(id, start.plusMinutes(createdAt.size()));
+        index.put(new FilteredPost(id, createdAt.get(id), status, categoryId, tagIds));
+        return id;
+    }
+
+    private List<UUID> select(UUID categoryId, Set<UUID> tagIds, TagMatch match, UUID after, int limit) {
+        return index.select(PostStatus.PUBLISHED, categoryId, tagIds, match, createdAt.get(after), after, limit);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.solonchev.blogback.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.solonchev.blogback.config.SearchProperties;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+import ru.solonchev.blogback.persistence.projection.PostFilterView;
+import ru.solonchev.blogback.persistence.projection.PostTagView;
+import ru.solonchev.blogback.persistence.repository.PostRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostFilterIndexerTest {
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final UUID postId = UUID.randomUUID();
+    private final UUID categoryId = UUID.randomUUID();
+    private final UUID tagId = UUID.randomUUID();
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Test
+    @DisplayName("Should stay unavailable after a failed load and serve posts once a retry succeeds")
+    void shouldStayUnavailableAfterFailedLoadAndServePostsOnceRetrySucceeds() {
+        PostFilterIndexer indexer = new PostFilterIndexer(new SearchProperties(), postRepository);
+        when(postRepository.findFilterBatch(any(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"))
+                .thenReturn(List.of(filterView()))
+                .thenReturn(List.of());
+        when(postRepository.findTagsByPostIdIn(List.of(postId))).thenReturn(List.of(tagView()));
+
+        assertFalse(indexer.build());
+        assertFalse(indexer.isReady());
+        assertThrows(RejectedExecutionException.class,
+                () -> indexer.findPublished(null, Set.of(tagId), TagMatch.ALL, null, 10));
+
+        assertTrue(indexer.build());
+        assertTrue(indexer.isReady());
+        assertEquals(List.of(postId), indexer.findPublished(null, Set.of(tagId), TagMatch.ALL, null, 10));
+    }
+
+    private PostFilterView filterView() {
+        return projectionFactory.createProjection(PostFilterView.class, Map.of(
+                "id", postId,
+                "createdAt", LocalDateTime.of(2026, 1, 1, 0, 0),
+                "status", PostStatus.PUBLISHED,
+                "categoryId", categoryId
+        ));
+    }
+
+    private PostTagView tagView() {
+        return projectionFactory.createProjection(PostTagView.class, Map.of(
+                "postId", postId,
+                "id", tagId,
+                "name", "Java"
+        ));
+    }
+}
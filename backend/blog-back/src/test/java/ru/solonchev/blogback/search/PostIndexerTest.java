@@ -0,0 +1,76 @@
+package ru.solonchev.blogback.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.solonchev.blogback.config.SearchProperties;
+import ru.solonchev.blogback.persistence.model.Category;
+import ru.solonchev.blogback.persistence.model.Post;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+import ru.solonchev.blogback.persistence.projection.PostIndexView;
+import ru.solonchev.blogback.persistence.repository.PostRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostIndexerTest {
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final UUID postId = UUID.randomUUID();
+    private final UUID categoryId = UUID.randomUUID();
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Test
+    @DisplayName("Should drop writes between failed builds and serve posts once a retry succeeds")
+    void shouldDropWritesBetweenFailedBuildsAndServePostsOnceRetrySucceeds() {
+        PostIndexer indexer = new PostIndexer(new SearchProperties().setEngine(SearchProperties.Engine.MEMORY),
+                postRepository);
+        when(postRepository.findIndexBatch(eq(PostStatus.PUBLISHED), any(), any(Limit.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is down"))
+                .thenReturn(List.of(indexView()))
+                .thenReturn(List.of());
+        when(postRepository.findTagsByPostIdIn(List.of(postId))).thenReturn(List.of());
+
+        assertFalse(indexer.build());
+        indexer.indexAfterCommit(new Post()
+                .setId(postId)
+                .setTitle("Virtual threads")
+                .setContent("<p>Carriers</p>")
+                .setStatus(PostStatus.PUBLISHED)
+                .setCategory(new Category().setId(categoryId)));
+
+        assertFalse(indexer.isReady());
+        assertEquals(0, indexer.statistics().getDocuments());
+
+        assertTrue(indexer.build());
+        assertTrue(indexer.isReady());
+        assertEquals(List.of(postId), indexer.search("virtual", null, Set.of(), null, 10).stream()
+                .map(PostSearchIndex.Hit::postId)
+                .toList());
+    }
+
+    private PostIndexView indexView() {
+        return projectionFactory.createProjection(PostIndexView.class, Map.of(
+                "id", postId,
+                "title", "Virtual threads",
+                "content", "<p>Carriers</p>",
+                "categoryId", categoryId
+        ));
+    }
+}
@@ -0,0 +1,181 @@
+package ru.solonchev.blogback.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostSearchIndexTest {
+
+    private final UUID category = UUID.randomUUID();
+    private final UUID otherCategory = UUID.randomUUID();
+    private final UUID javaTag = UUID.randomUUID();
+    private final UUID databaseTag = UUID.randomUUID();
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex(64);
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above body matches and require every word")
+    void shouldRankTitleMatchesAboveBodyMatchesAndRequireEveryWord() {
+        UUID inTitle = put("Virtual threads", "<p>Notes on the scheduler.</p>", category, Set.of());
+        UUID inBody = put("Notes", "<p>How <b>virtual</b> threads are scheduled on carriers.</p>", category, Set.of());
+        put("Platform threads", "<p>Blocking on carriers.</p>", category, Set.of());
+        put("Virtual memory", "<p>Pages and frames.</p>", category, Set.of());
+
+        List<PostSearchIndex.Hit> hits = search("virtual threads", null, Set.of(), null, 10);
+
+        assertEquals(List.of(inTitle, inBody), hits.stream().map(PostSearchIndex.Hit::postId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Should expand prefix queries and drop excluded words")
+    void shouldExpandPrefixQueriesAndDropExcludedWords() {
+        UUID indexing = put("Indexing", "Building an index", category, Set.of());
+        UUID indexes = put("Indexes", "Partial indexes in Postgres", category, Set.of());
+        put("Indie games", "Not related", category, Set.of());
+
+        assertEquals(Set.of(indexing, indexes), ids(search("index*", null, Set.of(), null, 10)));
+        assertEquals(Set.of(indexing), ids(search("index* -postgres", null, Set.of(), null, 10)));
+        assertEquals(Set.of(indexing), ids(search("index", null, Set.of(), null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should filter hits by category and by every requested tag")
+    void shouldFilterHitsByCategoryAndByEveryRequestedTag() {
+        UUID both = put("Caching", "cache", category, Set.of(javaTag, databaseTag));
+        UUID javaOnly = put("Caching", "cache", category, Set.of(javaTag));
+        UUID elsewhere = put("Caching", "cache", otherCategory, Set.of(javaTag, databaseTag));
+
+        assertEquals(Set.of(both, javaOnly), ids(search("cache", category, Set.of(), null, 10)));
+        assertEquals(Set.of(both, elsewhere), ids(search("cache", null, Set.of(javaTag, databaseTag), null, 10)));
+        assertEquals(Set.of(both), ids(search("cache", category, Set.of(databaseTag), null, 10)));
+        assertEquals(Set.of(), ids(search("cache", UUID.randomUUID(), Set.of(), null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should page through every hit exactly once in rank order")
+    void shouldPageThroughEveryHitExactlyOnceInRankOrder() {
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            put("Post " + i, "search ".repeat(1 + random.nextInt(5)) + "filler ".repeat(random.nextInt(50)), category, Set.of());
+        }
+        List<PostSearchIndex.Hit> all = search("search", null, Set.of(), null, 1000);
+
+        List<PostSearchIndex.Hit> paged = new ArrayList<>();
+        PostSearchIndex.Hit after = null;
+        List<PostSearchIndex.Hit> page;
+        while (!(page = search("search", null, Set.of(), after, 7)).isEmpty()) {
+            paged.addAll(page);
+            after = page.getLast();
+        }
+
+        assertEquals(200, all.size());
+        assertEquals(all, paged);
+    }
+
+    @Test
+    @DisplayName("Should replace re-indexed posts and forget removed ones across compaction")
+    void shouldReplaceReIndexedPostsAndForgetRemovedOnesAcrossCompaction() {
+        List<UUID> posts = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            posts.add(put("Post " + i, i % 2 == 0 ? "even" : "odd", category, Set.of()));
+        }
+        UUID changed = posts.get(0);
+        index.put(new IndexedPost(changed, "Post 0", "odd now", category, Set.of()));
+        for (int i = 1; i < 2100; i += 2) {
+            index.remove(posts.get(i));
+        }
+
+        PostSearchIndex.Statistics statistics = index.statistics();
+        assertEquals(1950, statistics.documents());
+        // compaction ran once a quarter of the ordinals were deleted, and later deletions start a new count
+        assertEquals(27, statistics.deletedDocuments());
+        assertEquals(1499, search("even", null, Set.of(), null, 5000).size());
+        assertEquals(Set.of(changed), ids(search("now", null, Set.of(), null, 10)));
+        Set<UUID> odd = ids(search("odd", null, Set.of(), null, 5000));
+        assertEquals(451, odd.size());
+        assertTrue(odd.contains(changed));
+        assertFalse(odd.contains(posts.get(1)));
+    }
+
+    @Test
+    @DisplayName("Should report postings and estimated memory")
+    void shouldReportPostingsAndEstimatedMemory() {
+        put("Alpha beta", "<p>gamma &amp; delta, gamma</p>", category, Set.of());
+        put("Beta", "epsilon", category, Set.of(javaTag));
+        index.trimToSize();
+
+        PostSearchIndex.Statistics statistics = index.statistics();
+
+        assertEquals(2, statistics.documents());
+        assertEquals(5, statistics.terms());
+        assertEquals(6, statistics.postings());
+        assertEquals(12, statistics.postingBytes());
+        assertTrue(statistics.estimatedBytes() > statistics.postingBytes());
+        assertEquals(statistics.estimatedBytes() * 200_000, statistics.estimatedBytesPerMillionTerms());
+    }
+
+    @Test
+    @DisplayName("Should match either word joined by or")
+    void shouldMatchEitherWordJoinedByOr() {
+        UUID postgres = put("Postgres", "Partial indexes", category, Set.of());
+        UUID mysql = put("MySQL", "Covering indexes", category, Set.of());
+        put("Oracle", "Bitmap indexes", category, Set.of());
+        put("Postgres", "Vacuum", category, Set.of());
+
+        assertEquals(Set.of(postgres, mysql), ids(search("postgres OR mysql indexes", null, Set.of(), null, 10)));
+        assertEquals(Set.of(), ids(search("or", null, Set.of(), null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should index words after a less-than sign that does not open a tag")
+    void shouldIndexWordsAfterLessThanSignThatDoesNotOpenTag() {
+        UUID comparison = put("Comparison", "<p>a < b holds when b is larger</p>", category, Set.of());
+
+        assertEquals(Set.of(comparison), ids(search("holds larger", null, Set.of(), null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should build snippets around matched words without the post markup")
+    void shouldBuildSnippetsAroundMatchedWordsWithoutPostMarkup() {
+        SearchQuery query = SearchQuery.parse("Ёлка index* -draft");
+        String content = "<p>Intro " + "word ".repeat(40) + "before <b>Елка</b> and Indexes, draft &amp; a < b</p>";
+
+        assertEquals("word word word word before <mark>Елка</mark> and <mark>Indexes</mark>, draft &amp; a &lt; b",
+                query.snippet(content, "<mark>", "</mark>"));
+    }
+
+    @Test
+    @DisplayName("Should return the beginning of the text when no word matches")
+    void shouldReturnBeginningOfTextWhenNoWordMatches() {
+        SearchQuery query = SearchQuery.parse("title");
+
+        assertEquals("First paragraph. Second", query.snippet("<h1>First paragraph.</h1><p>Second</p>", "<mark>", "</mark>"));
+    }
+
+    private UUID put(String title, String content, UUID categoryId, Set<UUID> tagIds) {
+        UUID id = UUID.randomUUID();
+        index.put(new IndexedPost(id, title, content, categoryId, tagIds));
+        return id;
+    }
+
+    private List<PostSearchIndex.Hit> search(String query, UUID categoryId, Set<UUID> tagIds, PostSearchIndex.Hit after,
+                                             int limit) {
+        return index.search(SearchQuery.parse(query), categoryId, tagIds, after, limit);
+    }
+
+    private static Set<UUID> ids(List<PostSearchIndex.Hit> hits) {
+        Set<UUID> ids = new HashSet<>();
+        hits.forEach(hit -> ids.add(hit.postId()));
+        return ids;
+    }
+}
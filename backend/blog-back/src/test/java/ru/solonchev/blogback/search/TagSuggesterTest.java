@@ -0,0 +1,57 @@
+package ru.solonchev.blogback.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.solonchev.blogback.persistence.projection.TagPostCountView;
+import ru.solonchev.blogback.persistence.repository.TagRepository;
+import ru.solonchev.blogback.web.dto.TagResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TagSuggesterTest {
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    private final UUID tagId = UUID.randomUUID();
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Test
+    @DisplayName("Should keep a post count adjustment that arrives while a reload reads older counts")
+    void shouldKeepPostCountAdjustmentThatArrivesWhileReloadReadsOlderCounts() throws InterruptedException {
+        TagSuggester suggester = new TagSuggester(tagRepository);
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        when(tagRepository.findAllWithPostCount()).thenAnswer(invocation -> {
+            // a post write commits after the reload has read its counts
+            writer.set(Thread.ofPlatform().start(() -> suggester.adjustPostCountsAfterCommit(List.of(tagId), 5)));
+            writer.get().join(Duration.ofMillis(200));
+            return List.of(tagView(1));
+        });
+
+        suggester.reloadAfterCommit();
+        writer.get().join();
+
+        assertEquals(List.of(new TagResponse(tagId, "Java", 6)), suggester.suggest("ja", 10));
+    }
+
+    private TagPostCountView tagView(long postCount) {
+        return projectionFactory.createProjection(TagPostCountView.class, Map.of(
+                "id", tagId,
+                "name", "Java",
+                "postCount", postCount
+        ));
+    }
+}
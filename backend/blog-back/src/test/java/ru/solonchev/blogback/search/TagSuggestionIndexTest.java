@@ -0,0 +1,56 @@
+package ru.solonchev.blogback.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagSuggestionIndexTest {
+
+    private final TagSuggestionIndex.SuggestedTag java = tag("Java", 40);
+    private final TagSuggestionIndex.SuggestedTag javascript = tag("JavaScript", 90);
+    private final TagSuggestionIndex.SuggestedTag jvm = tag("JVM", 10);
+    private final TagSuggestionIndex.SuggestedTag yozh = tag("Ёжик", 1);
+    private final TagSuggestionIndex.SuggestedTag kotlin = tag("kotlin", 70);
+
+    private final TagSuggestionIndex index = new TagSuggestionIndex(List.of(java, javascript, jvm, yozh, kotlin));
+
+    @Test
+    @DisplayName("Should suggest tags starting with the prefix in any case, most used first")
+    void shouldSuggestTagsStartingWithPrefixInAnyCaseMostUsedFirst() {
+        assertEquals(List.of("JavaScript", "Java", "JVM"), names(index.suggest("j", 10)));
+        assertEquals(List.of("JavaScript", "Java"), names(index.suggest("JAV", 10)));
+        assertEquals(List.of("JavaScript"), names(index.suggest("javas", 10)));
+        assertEquals(List.of("Ёжик"), names(index.suggest("еж", 10)));
+        assertEquals(List.of(), names(index.suggest("scala", 10)));
+    }
+
+    @Test
+    @DisplayName("Should keep only the best suggestions when more tags match than the limit")
+    void shouldKeepOnlyBestSuggestionsWhenMoreTagsMatchThanLimit() {
+        assertEquals(List.of("JavaScript", "Java"), names(index.suggest("j", 2)));
+    }
+
+    @Test
+    @DisplayName("Should rerank suggestions after post counts are adjusted")
+    void shouldRerankSuggestionsAfterPostCountsAreAdjusted() {
+        index.adjustPostCount(jvm.id(), 100);
+        index.adjustPostCount(UUID.randomUUID(), 100);
+
+        List<TagSuggestionIndex.SuggestedTag> suggestions = index.suggest("j", 1);
+
+        assertEquals(List.of("JVM"), names(suggestions));
+        assertEquals(110, suggestions.getFirst().postCount());
+    }
+
+    private static TagSuggestionIndex.SuggestedTag tag(String name, int postCount) {
+        return new TagSuggestionIndex.SuggestedTag(UUID.randomUUID(), name, postCount);
+    }
+
+    private static List<String> names(List<TagSuggestionIndex.SuggestedTag> tags) {
+        return tags.stream().map(TagSuggestionIndex.SuggestedTag::name).toList();
+    }
+}
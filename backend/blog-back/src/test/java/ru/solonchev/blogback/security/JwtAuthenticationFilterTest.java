@@ -0,0 +1,154 @@
+package ru.solonchev.blogback.security;
+
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import ru.solonchev.blogback.config.SecurityConfig;
+import ru.solonchev.blogback.web.service.AuthenticationService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String VALID_TOKEN = "valid.jwt.token";
+    private static final String INVALID_TOKEN = "invalid.jwt.token";
+
+    private final BlogUserDetails userDetails = BlogUserDetails.fromClaims(
+            UUID.randomUUID(), "Test user", "test@example.com", List.of(BlogUserDetails.DEFAULT_ROLE));
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(authenticationService, SecurityConfig.PUBLIC_READS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should let a public read without a token through unauthenticated")
+    void shouldLetPublicReadWithoutTokenThroughUnauthenticated() throws Exception {
+        MockHttpServletRequest request = request(HttpMethod.GET, "/api/v1/posts", null);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+
+        assertNull(authentication.get());
+        assertNull(request.getAttribute("userId"));
+        verifyNoInteractions(authenticationService);
+    }
+
+    @Test
+    @DisplayName("Should verify the token of a public read only when the principal is read")
+    void shouldVerifyTokenOfPublicReadOnlyWhenPrincipalIsRead() throws Exception {
+        when(authenticationService.validateToken(VALID_TOKEN)).thenReturn(userDetails);
+        MockHttpServletRequest request = request(HttpMethod.GET, "/api/v1/posts/" + UUID.randomUUID(), VALID_TOKEN);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            verifyNoInteractions(authenticationService);
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+        });
+
+        assertSame(userDetails, authentication.get().getPrincipal());
+        assertNull(request.getAttribute("userId"));
+        verify(authenticationService).validateToken(VALID_TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should let a public read with an invalid token through unauthenticated")
+    void shouldLetPublicReadWithInvalidTokenThroughUnauthenticated() throws Exception {
+        when(authenticationService.validateToken(INVALID_TOKEN)).thenThrow(new SignatureException("Invalid signature"));
+        MockHttpServletRequest request = request(HttpMethod.GET, "/api/v1/tags", INVALID_TOKEN);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            verifyNoInteractions(authenticationService);
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+        });
+
+        assertNull(authentication.get());
+        assertNull(request.getAttribute("userId"));
+    }
+
+    @Test
+    @DisplayName("Should verify the token of the drafts read eagerly and set the user id")
+    void shouldVerifyTokenOfDraftsReadEagerlyAndSetUserId() throws Exception {
+        when(authenticationService.validateToken(VALID_TOKEN)).thenReturn(userDetails);
+        MockHttpServletRequest request = request(HttpMethod.GET, "/api/v1/posts/drafts", VALID_TOKEN);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                verify(authenticationService).validateToken(VALID_TOKEN));
+
+        assertEquals(userDetails.getId(), request.getAttribute("userId"));
+    }
+
+    @Test
+    @DisplayName("Should verify the token of a protected request eagerly and set the user id")
+    void shouldVerifyTokenOfProtectedRequestEagerlyAndSetUserId() throws Exception {
+        when(authenticationService.validateToken(VALID_TOKEN)).thenReturn(userDetails);
+        MockHttpServletRequest request = request(HttpMethod.POST, "/api/v1/posts", VALID_TOKEN);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            verify(authenticationService).validateToken(VALID_TOKEN);
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+        });
+
+        assertSame(userDetails, authentication.get().getPrincipal());
+        assertEquals(userDetails.getId(), request.getAttribute("userId"));
+    }
+
+    @Test
+    @DisplayName("Should reject a protected request with an invalid token")
+    void shouldRejectProtectedRequestWithInvalidToken() {
+        when(authenticationService.validateToken(INVALID_TOKEN)).thenThrow(new SignatureException("Invalid signature"));
+        MockHttpServletRequest request = request(HttpMethod.POST, "/api/v1/posts", INVALID_TOKEN);
+        HttpServlet endpoint = new HttpServlet() {
+        };
+        MockFilterChain chain = new MockFilterChain(endpoint, filter, new AnonymousAuthenticationFilter("anonymous"),
+                new AuthorizationFilter(AuthenticatedAuthorizationManager.authenticated()));
+
+        assertThrows(AccessDeniedException.class, () -> chain.doFilter(request, new MockHttpServletResponse()));
+        assertNull(request.getAttribute("userId"));
+        verify(authenticationService).validateToken(INVALID_TOKEN);
+    }
+
+    private MockHttpServletRequest request(HttpMethod method, String path, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method.name(), path);
+        request.setServletPath(path);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
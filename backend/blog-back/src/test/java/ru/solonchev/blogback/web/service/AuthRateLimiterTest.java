@@ -0,0 +1,85 @@
+package ru.solonchev.blogback.web.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.solonchev.blogback.config.RateLimitProperties;
+import ru.solonchev.blogback.web.exception.RateLimitExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private RateLimitProperties properties;
+    private AuthRateLimiter authRateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties()
+                .setPerIp(new RateLimitProperties.Bucket().setCapacity(10).setPeriod(Duration.ofMinutes(1)))
+                .setPerEmail(new RateLimitProperties.Bucket().setCapacity(3).setPeriod(Duration.ofMinutes(1)));
+        authRateLimiter = new AuthRateLimiter(properties, now::get);
+    }
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then reject with retry after")
+    void shouldAllowBurstUpToCapacityAndThenRejectWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            authRateLimiter.checkLogin("10.0.0.1", "test@example.com");
+        }
+
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> authRateLimiter.checkLogin("10.0.0.1", "test@example.com"));
+
+        assertEquals(Duration.ofSeconds(20), exception.getRetryAfter());
+    }
+
+    @Test
+    @DisplayName("Should refill tokens as time passes")
+    void shouldRefillTokensAsTimePasses() {
+        for (int i = 0; i < 3; i++) {
+            authRateLimiter.checkLogin("10.0.0.1", "test@example.com");
+        }
+
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        assertDoesNotThrow(() -> authRateLimiter.checkLogin("10.0.0.1", "test@example.com"));
+        assertThrows(RateLimitExceededException.class, () -> authRateLimiter.checkLogin("10.0.0.1", "test@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should limit by email regardless of letter case and client address")
+    void shouldLimitByEmailRegardlessOfLetterCaseAndClientAddress() {
+        authRateLimiter.checkLogin("10.0.0.1", "test@example.com");
+        authRateLimiter.checkLogin("10.0.0.2", "Test@Example.com");
+        authRateLimiter.checkLogin("10.0.0.3", "TEST@EXAMPLE.COM");
+
+        assertThrows(RateLimitExceededException.class, () -> authRateLimiter.checkLogin("10.0.0.4", "test@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should limit by client address across different emails")
+    void shouldLimitByClientAddressAcrossDifferentEmails() {
+        for (int i = 0; i < 10; i++) {
+            authRateLimiter.checkLogin("10.0.0.1", "user" + i + "@example.com");
+        }
+
+        assertThrows(RateLimitExceededException.class, () -> authRateLimiter.checkLogin("10.0.0.1", "other@example.com"));
+        assertDoesNotThrow(() -> authRateLimiter.checkSignup("10.0.0.1", "other@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should not limit when rate limiting is disabled")
+    void shouldNotLimitWhenRateLimitingIsDisabled() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 20; i++) {
+            authRateLimiter.checkLogin("10.0.0.1", "test@example.com");
+        }
+    }
+}
@@ -1,92 +1,106 @@
 package ru.solonchev.blogback.web.service;
 
-import org.junit.jupiter.api.BeforeEach;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.util.ReflectionTestUtils;
+import ru.solonchev.blogback.config.JwtProperties;
+import ru.solonchev.blogback.persistence.model.User;
+import ru.solonchev.blogback.security.BlogUserDetails;
+import ru.solonchev.blogback.security.JwtKeys;
+import ru.solonchev.blogback.security.VerifiedTokenCache;
 
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class AuthenticationServiceTest {
 
-    @Mock
-    private AuthenticationManager authenticationManager;
-
     @Mock
     private UserDetailsService userDetailsService;
 
     @Mock
-    private UserDetails userDetails;
+    private UserService userService;
+
+    @Spy
+    private JwtKeys jwtKeys = new JwtKeys(new JwtProperties().setSecret(SECRET));
+
+    @Spy
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(new JwtProperties(), new SimpleMeterRegistry());
 
     @Mock
-    private Authentication authentication;
+    private UserDetails userDetails;
 
     @InjectMocks
     private AuthenticationService authenticationService;
 
+    private static final String SECRET = "testSecretKeyWithLength32Characters1234567890";
+    private static final String NEXT_SECRET = "nextSecretKeyWithLength32Characters1234567890";
+
     private final String email = "test@example.com";
     private final String password = "password";
     private final String token = "test.jwt.token";
 
-    @BeforeEach
-    void setUp() {
-        ReflectionTestUtils.setField(authenticationService, "secretKey", "testSecretKeyWithLength32Characters1234567890");
-    }
-
     @Test
     @DisplayName("Should authenticate user with valid credentials")
     void shouldAuthenticateUserWithValidCredentials() {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getPrincipal()).thenReturn(userDetails);
+        BlogUserDetails blogUserDetails = new BlogUserDetails(new User()
+                .setId(UUID.randomUUID())
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password));
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(blogUserDetails);
 
-        UserDetails result = authenticationService.authenticate(email, password);
+        Optional<UserDetails> user = authenticationService.findUser(email);
+        UserDetails result = authenticationService.checkCredentials(user, true);
 
-        assertNotNull(result);
-        assertEquals(userDetails, result);
+        assertEquals(blogUserDetails, result);
 
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(authentication).isAuthenticated();
-        verify(authentication).getPrincipal();
+        verify(userDetailsService).loadUserByUsername(email);
     }
 
     @Test
-    @DisplayName("Should throw BadCredentialsException when authentication fails")
-    void shouldThrowBadCredentialsExceptionWhenAuthenticationFails() {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenThrow(new BadCredentialsException("Bad credentials"));
+    @DisplayName("Should throw BadCredentialsException when user is not found")
+    void shouldThrowBadCredentialsExceptionWhenUserIsNotFound() {
+        when(userDetailsService.loadUserByUsername(email)).thenThrow(new UsernameNotFoundException(email));
 
-        assertThrows(BadCredentialsException.class, () -> authenticationService.authenticate(email, password));
+        Optional<UserDetails> user = authenticationService.findUser(email);
 
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        assertTrue(user.isEmpty());
+        assertThrows(BadCredentialsException.class, () -> authenticationService.checkCredentials(user, true));
     }
 
     @Test
-    @DisplayName("Should throw BadCredentialsException when authentication is not successful")
-    void shouldThrowBadCredentialsExceptionWhenAuthenticationIsNotSuccessful() {
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(false);
+    @DisplayName("Should throw BadCredentialsException when password does not match")
+    void shouldThrowBadCredentialsExceptionWhenPasswordDoesNotMatch() {
+        assertThrows(BadCredentialsException.class,
+                () -> authenticationService.checkCredentials(Optional.of(userDetails), false));
 
-        assertThrows(BadCredentialsException.class, () -> authenticationService.authenticate(email, password));
+        verifyNoInteractions(userDetails);
+    }
+
+    @Test
+    @DisplayName("Should throw BadCredentialsException when account is disabled")
+    void shouldThrowBadCredentialsExceptionWhenAccountIsDisabled() {
+        when(userDetails.isAccountNonLocked()).thenReturn(true);
+        when(userDetails.isEnabled()).thenReturn(false);
 
-        verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(authentication).isAuthenticated();
+        assertThrows(BadCredentialsException.class,
+                () -> authenticationService.checkCredentials(Optional.of(userDetails), true));
     }
 
     @Test
@@ -103,8 +117,118 @@ class AuthenticationServiceTest {
     }
 
     @Test
-    @DisplayName("Should validate token and return user details")
-    void shouldValidateTokenAndReturnUserDetails() {
+    @DisplayName("Should build principal from token claims without loading the user")
+    void shouldBuildPrincipalFromTokenClaimsWithoutLoadingUser() {
+        UUID userId = UUID.randomUUID();
+        BlogUserDetails blogUserDetails = new BlogUserDetails(new User()
+                .setId(userId)
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password));
+        String validToken = authenticationService.generateToken(blogUserDetails);
+
+        UserDetails result = authenticationService.validateToken(validToken);
+
+        BlogUserDetails principal = assertInstanceOf(BlogUserDetails.class, result);
+        assertEquals(userId, principal.getId());
+        assertEquals("Test User", principal.getName());
+        assertEquals(email, principal.getUsername());
+        assertNull(principal.getPassword());
+        assertEquals(blogUserDetails.getAuthorities(), principal.getAuthorities());
+
+        verifyNoInteractions(userDetailsService, userService);
+    }
+
+    @Test
+    @DisplayName("Should reject token of deleted user when user check is enabled")
+    void shouldRejectTokenOfDeletedUserWhenUserCheckIsEnabled() {
+        ReflectionTestUtils.setField(authenticationService, "userCheckEnabled", true);
+        UUID userId = UUID.randomUUID();
+        String validToken = authenticationService.generateToken(new BlogUserDetails(new User()
+                .setId(userId)
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password)));
+        when(userService.isExistsById(userId)).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class, () -> authenticationService.validateToken(validToken));
+
+        verify(userService).isExistsById(userId);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Should accept token signed with a retired key after key rotation")
+    void shouldAcceptTokenSignedWithRetiredKeyAfterKeyRotation() {
+        UUID userId = UUID.randomUUID();
+        String tokenBeforeRotation = authenticationService.generateToken(new BlogUserDetails(new User()
+                .setId(userId)
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password)));
+        JwtKeys rotatedKeys = new JwtKeys(new JwtProperties()
+                .setSecret(NEXT_SECRET)
+                .setKeyId("next")
+                .setVerificationKeys(Map.of(JwtProperties.DEFAULT_KEY_ID, SECRET)));
+        ReflectionTestUtils.setField(authenticationService, "jwtKeys", rotatedKeys);
+
+        BlogUserDetails result = (BlogUserDetails) authenticationService.validateToken(tokenBeforeRotation);
+
+        assertEquals(userId, result.getId());
+    }
+
+    @Test
+    @DisplayName("Should reject token signed with a key that is no longer configured")
+    void shouldRejectTokenSignedWithKeyThatIsNoLongerConfigured() {
+        String tokenBeforeRotation = authenticationService.generateToken(new BlogUserDetails(new User()
+                .setId(UUID.randomUUID())
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password)));
+        ReflectionTestUtils.setField(authenticationService, "jwtKeys",
+                new JwtKeys(new JwtProperties().setSecret(NEXT_SECRET).setKeyId("next")));
+
+        assertThrows(SignatureException.class, () -> authenticationService.validateToken(tokenBeforeRotation));
+    }
+
+    @Test
+    @DisplayName("Should verify a repeated token only once while it is cached")
+    void shouldVerifyRepeatedTokenOnlyOnceWhileItIsCached() {
+        String validToken = authenticationService.generateToken(new BlogUserDetails(new User()
+                .setId(UUID.randomUUID())
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password)));
+
+        UserDetails first = authenticationService.validateToken(validToken);
+        UserDetails second = authenticationService.validateToken(validToken);
+
+        assertSame(first, second);
+        verify(jwtKeys, times(1)).getParser();
+    }
+
+    @Test
+    @DisplayName("Should verify every request when token cache is disabled")
+    void shouldVerifyEveryRequestWhenTokenCacheIsDisabled() {
+        JwtProperties properties = new JwtProperties();
+        properties.getTokenCache().setEnabled(false);
+        ReflectionTestUtils.setField(authenticationService, "verifiedTokenCache",
+                new VerifiedTokenCache(properties, new SimpleMeterRegistry()));
+        String validToken = authenticationService.generateToken(new BlogUserDetails(new User()
+                .setId(UUID.randomUUID())
+                .setName("Test User")
+                .setEmail(email)
+                .setPassword(password)));
+
+        authenticationService.validateToken(validToken);
+        authenticationService.validateToken(validToken);
+
+        verify(jwtKeys, times(2)).getParser();
+    }
+
+    @Test
+    @DisplayName("Should load user details for token issued without user claims")
+    void shouldLoadUserDetailsForTokenIssuedWithoutUserClaims() {
         when(userDetails.getUsername()).thenReturn(email);
         String validToken = authenticationService.generateToken(userDetails);
 
@@ -7,15 +7,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.solonchev.blogback.persistence.model.Category;
+import ru.solonchev.blogback.persistence.projection.CategoryPostCountView;
 import ru.solonchev.blogback.persistence.repository.CategoryRepository;
 import ru.solonchev.blogback.web.dto.CategoryDto;
+import ru.solonchev.blogback.web.dto.CategorySnapshot;
 import ru.solonchev.blogback.web.dto.CreateCategoryRequest;
 import ru.solonchev.blogback.web.dto.UpdateCategoryRequestDto;
 import ru.solonchev.blogback.web.mapper.CategoryMapper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -38,7 +42,7 @@ class CategoryServiceTest {
     private UUID categoryId;
     private Category category;
     private CategoryDto categoryDto;
-    private List<Category> categories;
+    private List<CategoryPostCountView> categoryViews;
     private List<CategoryDto> categoryDtos;
     private CreateCategoryRequest createCategoryRequest;
     private UpdateCategoryRequestDto updateCategoryRequestDto;
@@ -57,7 +61,10 @@ class CategoryServiceTest {
                 .setName("Test Category")
                 .setPostCount(0);
 
-        categories = List.of(category);
+        categoryViews = List.of(new SpelAwareProxyProjectionFactory().createProjection(
+                CategoryPostCountView.class,
+                Map.of("id", categoryId, "name", "Test Category", "postCount", 0L)
+        ));
         categoryDtos = List.of(categoryDto);
 
         createCategoryRequest = new CreateCategoryRequest()
@@ -71,8 +78,8 @@ class CategoryServiceTest {
     @Test
     @DisplayName("Should return all categories when getCategories is called")
     void shouldReturnAllCategoriesWhenGetCategoriesIsCalled() {
-        when(categoryRepository.findAllWithPostCount()).thenReturn(categories);
-        when(categoryMapper.mapListEntityToListDto(categories)).thenReturn(categoryDtos);
+        when(categoryRepository.findAllWithPostCount()).thenReturn(categoryViews);
+        when(categoryMapper.mapListViewToListDto(categoryViews)).thenReturn(categoryDtos);
 
         List<CategoryDto> result = categoryService.getCategories();
 
@@ -82,7 +89,7 @@ class CategoryServiceTest {
         assertEquals(categoryDtos.get(0).getName(), result.get(0).getName());
 
         verify(categoryRepository).findAllWithPostCount();
-        verify(categoryMapper).mapListEntityToListDto(categories);
+        verify(categoryMapper).mapListViewToListDto(categoryViews);
     }
 
     @Test
@@ -207,7 +214,7 @@ class CategoryServiceTest {
     void shouldFindCategoryByIdWhenFindCategoryByIdIsCalledWithValidId() {
         when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
 
-        Category result = categoryService.findCategoryById(categoryId);
+        CategorySnapshot result = categoryService.findCategoryById(categoryId);
 
         assertNotNull(result);
         assertEquals(category.getId(), result.getId());
@@ -0,0 +1,95 @@
+package ru.solonchev.blogback.web.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    private ThreadPoolExecutor executor;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        passwordHashingService = new PasswordHashingService(executor, passwordEncoder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should hash password on the hashing pool")
+    void shouldHashPasswordOnHashingPool() throws Exception {
+        String hashedPassword = passwordHashingService.encode("password").get(5, TimeUnit.SECONDS);
+
+        assertTrue(passwordEncoder.matches("password", hashedPassword));
+    }
+
+    @Test
+    @DisplayName("Should match password against stored hash")
+    void shouldMatchPasswordAgainstStoredHash() throws Exception {
+        String hashedPassword = passwordEncoder.encode("password");
+
+        assertTrue(passwordHashingService.matches("password", hashedPassword).get(5, TimeUnit.SECONDS));
+        assertFalse(passwordHashingService.matches("wrong", hashedPassword).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should not match password of unknown user")
+    void shouldNotMatchPasswordOfUnknownUser() throws Exception {
+        assertFalse(passwordHashingService.matches("password", null).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should run chained stages off the hashing pool")
+    void shouldRunChainedStagesOffHashingPool() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Thread> stageThread = passwordHashingService.submit(() -> awaitQuietly(release))
+                .thenApply(released -> Thread.currentThread());
+
+        release.countDown();
+
+        assertTrue(stageThread.get(5, TimeUnit.SECONDS).isVirtual());
+    }
+
+    @Test
+    @DisplayName("Should reject hashing when the pool and its queue are full")
+    void shouldRejectHashingWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = passwordHashingService.submit(() -> {
+            started.countDown();
+            return awaitQuietly(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = passwordHashingService.encode("queued");
+
+        assertThrows(RejectedExecutionException.class, () -> passwordHashingService.encode("rejected"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(passwordEncoder.matches("queued", queued.get(5, TimeUnit.SECONDS)));
+    }
+
+    private boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
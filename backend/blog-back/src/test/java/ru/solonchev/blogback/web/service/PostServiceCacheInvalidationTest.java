@@ -0,0 +1,181 @@
+package ru.solonchev.blogback.web.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.solonchev.blogback.config.CacheConfig;
+import ru.solonchev.blogback.config.SearchConfig;
+import ru.solonchev.blogback.persistence.model.Category;
+import ru.solonchev.blogback.persistence.model.PostStatus;
+import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.model.User;
+import ru.solonchev.blogback.persistence.repository.CategoryRepository;
+import ru.solonchev.blogback.persistence.repository.TagRepository;
+import ru.solonchev.blogback.persistence.repository.UserRepository;
+import ru.solonchev.blogback.search.PostFilterIndexer;
+import ru.solonchev.blogback.search.PostIndexer;
+import ru.solonchev.blogback.search.TagSuggester;
+import ru.solonchev.blogback.web.dto.*;
+import ru.solonchev.blogback.web.mapper.CategoryMapperImpl;
+import ru.solonchev.blogback.web.mapper.PostMapperImpl;
+import ru.solonchev.blogback.web.mapper.TagMapperImpl;
+import ru.solonchev.blogback.web.mapper.UserMapperImpl;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the real cache manager without a test transaction, so writes commit and
+ * transaction-aware evictions happen exactly as they do in production.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@Import({
+        CacheConfig.class,
+        PostService.class, CategoryService.class, TagService.class, UserService.class, PostIndexer.class, PostFilterIndexer.class, TagSuggester.class, SearchConfig.class,
+        PostMapperImpl.class, CategoryMapperImpl.class, TagMapperImpl.class, UserMapperImpl.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostServiceCacheInvalidationTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+    private Category category;
+    private Tag tag;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(new User()
+                .setName("Test User")
+                .setEmail("test@example.com")
+                .setPassword("password"));
+        category = categoryRepository.save(new Category().setName("Test Category"));
+        tag = tagRepository.save(new Tag().setName("Test Tag"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from post_tags");
+        jdbcTemplate.update("delete from posts");
+        jdbcTemplate.update("delete from tags");
+        jdbcTemplate.update("delete from categories");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    @DisplayName("Should serve fresh published counts after every post write")
+    void shouldServeFreshPublishedCountsAfterEveryPostWrite() {
+        assertCounts(0);
+
+        PostDto post = postService.createPost(CreatePostRequestDto.builder()
+                .title("Post")
+                .content("Content")
+                .categoryId(category.getId())
+                .tagIds(Set.of(tag.getId()))
+                .status(PostStatus.PUBLISHED)
+                .build(), author.getId());
+        assertCounts(1);
+
+        postService.updatePost(post.getId(), UpdatePostRequestDto.builder()
+                .id(post.getId())
+                .title("Post")
+                .content("Content")
+                .categoryId(category.getId())
+                .tagIds(Set.of(tag.getId()))
+                .status(PostStatus.DRAFT)
+                .build());
+        assertCounts(0);
+
+        postService.updatePost(post.getId(), UpdatePostRequestDto.builder()
+                .id(post.getId())
+                .title("Post")
+                .content("Content")
+                .categoryId(category.getId())
+                .tagIds(Set.of(tag.getId()))
+                .status(PostStatus.PUBLISHED)
+                .build());
+        assertCounts(1);
+
+        postService.deletePost(post.getId());
+        assertCounts(0);
+    }
+
+    @Test
+    @DisplayName("Should not share cached tag lookups between id sets with equal hash codes")
+    void shouldNotShareCachedTagLookupsBetweenIdSetsWithEqualHashCodes() {
+        // UUID(0, n).hashCode() == n, so both sets hash to 5
+        UUID first = insertTag(new UUID(0, 1), "first");
+        UUID fourth = insertTag(new UUID(0, 4), "fourth");
+        UUID second = insertTag(new UUID(0, 2), "second");
+        UUID third = insertTag(new UUID(0, 3), "third");
+        Set<UUID> firstSet = Set.of(first, fourth);
+        Set<UUID> secondSet = Set.of(second, third);
+        assertEquals(firstSet.hashCode(), secondSet.hashCode());
+
+        assertEquals(Set.of("first", "fourth"), names(tagService.findTagsByIds(firstSet)));
+        assertEquals(Set.of("second", "third"), names(tagService.findTagsByIds(secondSet)));
+    }
+
+    @Test
+    @DisplayName("Should evict cached tag lookups when the tag is deleted")
+    void shouldEvictCachedTagLookupsWhenTagIsDeleted() {
+        assertEquals(tag.getName(), tagService.findTagById(tag.getId()).getName());
+        assertEquals(1, tagService.findTagsByIds(Set.of(tag.getId())).size());
+
+        tagService.deleteTag(tag.getId());
+
+        assertThrows(EntityNotFoundException.class, () -> tagService.findTagById(tag.getId()));
+        assertThrows(EntityNotFoundException.class, () -> tagService.findTagsByIds(Set.of(tag.getId())));
+        assertEquals(0, tagService.findAllTags(0, 10).getTotalElements());
+    }
+
+    private void assertCounts(long expected) {
+        CategoryDto cachedCategory = categoryService.getCategories().getFirst();
+        TagResponse cachedTag = tagService.findAllTags(0, 10).getContent().getFirst();
+        assertEquals(expected, cachedCategory.getPostCount());
+        assertEquals(expected, cachedTag.getPostCount().longValue());
+    }
+
+    private UUID insertTag(UUID id, String name) {
+        jdbcTemplate.update("insert into tags (id, name, published_post_count) values (?, ?, 0)", id, name);
+        return id;
+    }
+
+    private Set<String> names(List<TagSnapshot> tags) {
+        return Set.copyOf(tags.stream().map(TagSnapshot::getName).toList());
+    }
+}
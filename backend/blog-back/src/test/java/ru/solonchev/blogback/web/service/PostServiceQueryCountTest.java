@@ -0,0 +1,133 @@
+package ru.solonchev.blogback.web.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.solonchev.blogback.config.SearchConfig;
+import ru.solonchev.blogback.persistence.model.*;
+import ru.solonchev.blogback.search.PostFilterIndexer;
+import ru.solonchev.blogback.search.PostIndexer;
+import ru.solonchev.blogback.search.TagSuggester;
+import ru.solonchev.blogback.web.dto.PostDto;
+import ru.solonchev.blogback.web.dto.PostSummaryDto;
+import ru.solonchev.blogback.web.mapper.CategoryMapperImpl;
+import ru.solonchev.blogback.web.mapper.PostMapperImpl;
+import ru.solonchev.blogback.web.mapper.TagMapperImpl;
+import ru.solonchev.blogback.web.mapper.UserMapperImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=100"
+})
+@Import({
+        PostService.class, CategoryService.class, TagService.class, UserService.class, PostIndexer.class, PostFilterIndexer.class, TagSuggester.class, SearchConfig.class,
+        PostMapperImpl.class, CategoryMapperImpl.class, TagMapperImpl.class, UserMapperImpl.class
+})
+class PostServiceQueryCountTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User author;
+    private Category category;
+    private List<Tag> tags;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        author = entityManager.persist(new User()
+                .setName("Test User")
+                .setEmail("test@example.com")
+                .setPassword("password"));
+        category = entityManager.persist(new Category().setName("Test Category"));
+        tags = List.of(
+                entityManager.persist(new Tag().setName("First Tag")),
+                entityManager.persist(new Tag().setName("Second Tag")),
+                entityManager.persist(new Tag().setName("Third Tag"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should list published posts with a constant number of statements")
+    void shouldListPublishedPostsWithConstantNumberOfStatements() {
+        persistPosts(3);
+        long statementsForThreePosts = countStatements(() -> assertEquals(3, postService.findAllPosts(null, null, null, null).size()));
+
+        persistPosts(20);
+        long statementsForTwentyThreePosts = countStatements(() -> {
+            List<PostSummaryDto> result = postService.findAllPosts(null, null, null, null);
+            assertEquals(23, result.size());
+            assertTrue(result.stream().allMatch(post -> post.getTags().size() == tags.size()));
+        });
+
+        assertEquals(2, statementsForThreePosts);
+        assertEquals(statementsForThreePosts, statementsForTwentyThreePosts);
+    }
+
+    @Test
+    @DisplayName("Should load a single post with its associations without per-tag statements")
+    void shouldLoadSinglePostWithItsAssociationsWithoutPerTagStatements() {
+        UUID postId = persistPosts(1).getFirst().getId();
+
+        statistics.clear();
+        PostDto result = postService.getPost(postId);
+        long graphStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(author.getName(), result.getAuthor().getName());
+        assertEquals(category.getName(), result.getCategory().getName());
+        assertEquals(tags.size(), result.getTags().size());
+        // post counts are read from the denormalized columns, so the entity graph select is all it takes
+        assertEquals(1, graphStatements);
+    }
+
+    private List<Post> persistPosts(int count) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Post post = new Post()
+                    .setTitle("Post " + i)
+                    .setContent("Content " + i)
+                    .setExcerpt("Content " + i)
+                    .setStatus(PostStatus.PUBLISHED)
+                    .setReadingTime(1)
+                    .setAuthor(author)
+                    .setCategory(category);
+            post.getTags().addAll(tags);
+            posts.add(entityManager.persist(post));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return posts;
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        long count = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return count;
+    }
+}
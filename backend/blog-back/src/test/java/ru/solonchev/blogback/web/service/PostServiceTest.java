@@ -7,19 +7,32 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.solonchev.blogback.config.SearchProperties;
 import ru.solonchev.blogback.persistence.model.*;
+import ru.solonchev.blogback.persistence.projection.PostContentView;
+import ru.solonchev.blogback.persistence.projection.PostSearchView;
+import ru.solonchev.blogback.persistence.projection.PostSummaryView;
+import ru.solonchev.blogback.persistence.projection.PostTagView;
 import ru.solonchev.blogback.persistence.repository.PostRepository;
-import ru.solonchev.blogback.web.dto.CreatePostRequestDto;
-import ru.solonchev.blogback.web.dto.PostDto;
-import ru.solonchev.blogback.web.dto.UpdatePostRequestDto;
+import ru.solonchev.blogback.search.PostFilterIndexer;
+import ru.solonchev.blogback.search.PostIndexer;
+import ru.solonchev.blogback.search.TagMatch;
+import ru.solonchev.blogback.search.PostSearchIndex;
+import ru.solonchev.blogback.web.dto.*;
 import ru.solonchev.blogback.web.mapper.PostMapper;
+import ru.solonchev.blogback.web.mapper.TagMapper;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,9 +53,23 @@ class PostServiceTest {
     @Mock
     private PostMapper postMapper;
 
+    @Mock
+    private TagMapper tagMapper;
+
+    @Mock
+    private PostIndexer postIndexer;
+
+    @Mock
+    private PostFilterIndexer postFilterIndexer;
+
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties().setMaxRankedMatches(100);
+
     @InjectMocks
     private PostService postService;
 
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
     private UUID postId;
     private UUID userId;
     private UUID categoryId;
@@ -54,8 +81,11 @@ class PostServiceTest {
     private PostDto postDto;
     private CreatePostRequestDto createPostRequestDto;
     private UpdatePostRequestDto updatePostRequestDto;
-    private List<Post> posts;
-    private List<PostDto> postDtos;
+    private PostSummaryView postSummary;
+    private PostTagView postTag;
+    private TagResponse tagResponse;
+    private List<PostSummaryView> postSummaries;
+    private List<PostSummaryDto> postSummaryDtos;
 
     @BeforeEach
     void setUp() {
@@ -116,106 +146,355 @@ class PostServiceTest {
                 .status(PostStatus.PUBLISHED)
                 .build();
 
-        posts = List.of(post);
-        postDtos = List.of(postDto);
+        postSummary = summaryView(postId, post.getCreatedAt());
+        postTag = projectionFactory.createProjection(PostTagView.class, Map.of(
+                "postId", postId,
+                "id", tagId,
+                "name", "Test Tag"
+        ));
+        tagResponse = new TagResponse()
+                .setId(tagId)
+                .setName("Test Tag");
+
+        postSummaries = List.of(postSummary);
+        postSummaryDtos = List.of(new PostSummaryDto()
+                .setId(postId)
+                .setTitle("Test Post")
+                .setExcerpt("Test Content")
+                .setTags(Set.of(tagResponse)));
+    }
+
+    private PostSummaryView summaryView(UUID id, LocalDateTime createdAt) {
+        return projectionFactory.createProjection(PostSummaryView.class, Map.of(
+                "id", id,
+                "title", "Test Post",
+                "excerpt", "Test Content",
+                "status", PostStatus.PUBLISHED,
+                "createdAt", createdAt
+        ));
+    }
+
+    private PostSearchView searchView(UUID id, float rank, String highlight) {
+        return searchView(id, rank, highlight, false);
+    }
+
+    private PostSearchView searchView(UUID id, float rank, String highlight, boolean truncated) {
+        return projectionFactory.createProjection(PostSearchView.class, Map.of(
+                "id", id,
+                "title", "Test Post",
+                "status", PostStatus.PUBLISHED,
+                "rank", rank,
+                "highlight", highlight,
+                "truncated", truncated
+        ));
+    }
+
+    private void stubSummaryMapping() {
+        when(postRepository.findTagsByPostIdIn(List.of(postId))).thenReturn(List.of(postTag));
+        when(tagMapper.mapViewToTagResponse(postTag)).thenReturn(tagResponse);
+        when(postMapper.mapToSummaryDto(postSummary, Set.of(tagResponse))).thenReturn(postSummaryDtos.get(0));
     }
 
     @Test
     @DisplayName("Should return all published posts when findAllPosts is called without filters")
     void shouldReturnAllPublishedPostsWhenFindAllPostsIsCalledWithoutFilters() {
-        when(postRepository.findAllByStatus(PostStatus.PUBLISHED)).thenReturn(posts);
-        when(postMapper.mapToListDto(posts)).thenReturn(postDtos);
+        when(postRepository.findPageByStatus(PostStatus.PUBLISHED, Limit.unlimited())).thenReturn(postSummaries);
+        stubSummaryMapping();
 
-        List<PostDto> result = postService.findAllPosts(null, null);
+        List<PostSummaryDto> result = postService.findAllPosts(null, null, null, null);
 
         assertNotNull(result);
-        assertEquals(postDtos.size(), result.size());
-        assertEquals(postDtos.get(0).getId(), result.get(0).getId());
+        assertEquals(postSummaryDtos.size(), result.size());
+        assertEquals(postSummaryDtos.get(0).getId(), result.get(0).getId());
 
-        verify(postRepository).findAllByStatus(PostStatus.PUBLISHED);
-        verify(postMapper).mapToListDto(posts);
+        verify(postRepository).findPageByStatus(PostStatus.PUBLISHED, Limit.unlimited());
+        verify(postRepository).findTagsByPostIdIn(List.of(postId));
+        verify(postMapper).mapToSummaryDto(postSummary, Set.of(tagResponse));
     }
 
     @Test
     @DisplayName("Should return filtered posts by category when findAllPosts is called with categoryId")
     void shouldReturnFilteredPostsByCategoryWhenFindAllPostsIsCalledWithCategoryId() {
-        when(categoryService.findCategoryById(categoryId)).thenReturn(category);
-        when(postRepository.findAllByStatusAndCategory(PostStatus.PUBLISHED, category)).thenReturn(posts);
-        when(postMapper.mapToListDto(posts)).thenReturn(postDtos);
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(postRepository.findPageByStatusAndCategory(PostStatus.PUBLISHED, categoryId, Limit.unlimited()))
+                .thenReturn(postSummaries);
+        stubSummaryMapping();
 
-        List<PostDto> result = postService.findAllPosts(categoryId, null);
+        List<PostSummaryDto> result = postService.findAllPosts(categoryId, null, null, null);
 
         assertNotNull(result);
-        assertEquals(postDtos.size(), result.size());
-        assertEquals(postDtos.get(0).getId(), result.get(0).getId());
+        assertEquals(postSummaryDtos.size(), result.size());
+        assertEquals(postSummaryDtos.get(0).getId(), result.get(0).getId());
 
         verify(categoryService).findCategoryById(categoryId);
-        verify(postRepository).findAllByStatusAndCategory(PostStatus.PUBLISHED, category);
-        verify(postMapper).mapToListDto(posts);
+        verify(postRepository).findPageByStatusAndCategory(PostStatus.PUBLISHED, categoryId, Limit.unlimited());
     }
 
     @Test
     @DisplayName("Should return filtered posts by tag when findAllPosts is called with tagId")
     void shouldReturnFilteredPostsByTagWhenFindAllPostsIsCalledWithTagId() {
-        when(tagService.findTagById(tagId)).thenReturn(tag);
-        when(postRepository.findAllByStatusAndTagsContaining(PostStatus.PUBLISHED, tag)).thenReturn(posts);
-        when(postMapper.mapToListDto(posts)).thenReturn(postDtos);
+        when(tagService.findTagById(tagId)).thenReturn(TagSnapshot.of(tag));
+        when(postRepository.findPageByStatusAndTag(PostStatus.PUBLISHED, tagId, Limit.unlimited()))
+                .thenReturn(postSummaries);
+        stubSummaryMapping();
 
-        List<PostDto> result = postService.findAllPosts(null, tagId);
+        List<PostSummaryDto> result = postService.findAllPosts(null, tagId, null, null);
 
         assertNotNull(result);
-        assertEquals(postDtos.size(), result.size());
-        assertEquals(postDtos.get(0).getId(), result.get(0).getId());
+        assertEquals(postSummaryDtos.size(), result.size());
+        assertEquals(postSummaryDtos.get(0).getId(), result.get(0).getId());
 
         verify(tagService).findTagById(tagId);
-        verify(postRepository).findAllByStatusAndTagsContaining(PostStatus.PUBLISHED, tag);
-        verify(postMapper).mapToListDto(posts);
+        verify(postRepository).findPageByStatusAndTag(PostStatus.PUBLISHED, tagId, Limit.unlimited());
     }
 
     @Test
     @DisplayName("Should return filtered posts by category and tag when findAllPosts is called with both filters")
     void shouldReturnFilteredPostsByCategoryAndTagWhenFindAllPostsIsCalledWithBothFilters() {
-        when(categoryService.findCategoryById(categoryId)).thenReturn(category);
-        when(tagService.findTagById(tagId)).thenReturn(tag);
-        when(postRepository.findAllByStatusAndCategoryAndTagsContaining(PostStatus.PUBLISHED, category, tag)).thenReturn(posts);
-        when(postMapper.mapToListDto(posts)).thenReturn(postDtos);
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(tagService.findTagById(tagId)).thenReturn(TagSnapshot.of(tag));
+        when(postRepository.findPageByStatusAndCategoryAndTag(PostStatus.PUBLISHED, categoryId, tagId, Limit.unlimited()))
+                .thenReturn(postSummaries);
+        stubSummaryMapping();
 
-        List<PostDto> result = postService.findAllPosts(categoryId, tagId);
+        List<PostSummaryDto> result = postService.findAllPosts(categoryId, tagId, null, null);
 
         assertNotNull(result);
-        assertEquals(postDtos.size(), result.size());
-        assertEquals(postDtos.get(0).getId(), result.get(0).getId());
+        assertEquals(postSummaryDtos.size(), result.size());
+        assertEquals(postSummaryDtos.get(0).getId(), result.get(0).getId());
 
         verify(categoryService).findCategoryById(categoryId);
         verify(tagService).findTagById(tagId);
-        verify(postRepository).findAllByStatusAndCategoryAndTagsContaining(PostStatus.PUBLISHED, category, tag);
-        verify(postMapper).mapToListDto(posts);
+        verify(postRepository).findPageByStatusAndCategoryAndTag(PostStatus.PUBLISHED, categoryId, tagId, Limit.unlimited());
+    }
+
+    @Test
+    @DisplayName("Should not query tags when findAllPosts finds no posts")
+    void shouldNotQueryTagsWhenFindAllPostsFindsNoPosts() {
+        when(postRepository.findPageByStatus(PostStatus.PUBLISHED, Limit.unlimited())).thenReturn(List.of());
+
+        List<PostSummaryDto> result = postService.findAllPosts(null, null, null, null);
+
+        assertTrue(result.isEmpty());
+        verify(postRepository, never()).findTagsByPostIdIn(any());
+        verifyNoInteractions(postMapper);
+    }
+
+    @Test
+    @DisplayName("Should return first page with next cursor when more posts exist")
+    void shouldReturnFirstPageWithNextCursorWhenMorePostsExist() {
+        PostSummaryView olderPost = summaryView(UUID.randomUUID(), postSummary.getCreatedAt().minusMinutes(1));
+        when(postRepository.findPageByStatus(PostStatus.PUBLISHED, Limit.of(2))).thenReturn(List.of(postSummary, olderPost));
+        stubSummaryMapping();
+
+        PostPageDto result = postService.findPostsPage(null, null, null, null, null, 1);
+
+        assertTrue(result.isHasNext());
+        assertEquals(postSummaryDtos, result.getContent());
+        PostCursor nextCursor = PostCursor.decode(result.getNextCursor());
+        assertEquals(postSummary.getCreatedAt(), nextCursor.getCreatedAt());
+        assertEquals(postId, nextCursor.getId());
+
+        verify(postRepository).findPageByStatus(PostStatus.PUBLISHED, Limit.of(2));
+        verify(postRepository).findTagsByPostIdIn(List.of(postId));
+    }
+
+    @Test
+    @DisplayName("Should seek after cursor when findPostsPage is called with cursor and both filters")
+    void shouldSeekAfterCursorWhenFindPostsPageIsCalledWithCursorAndBothFilters() {
+        PostCursor cursor = PostCursor.of(postSummary);
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(tagService.findTagById(tagId)).thenReturn(TagSnapshot.of(tag));
+        when(postRepository.findPageByStatusAndCategoryAndTagAfter(
+                PostStatus.PUBLISHED, categoryId, tagId, postSummary.getCreatedAt(), postId, Limit.of(11)))
+                .thenReturn(postSummaries);
+        stubSummaryMapping();
+
+        PostPageDto result = postService.findPostsPage(categoryId, tagId, null, null, cursor.encode(), 10);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(postSummaryDtos, result.getContent());
+
+        verify(postRepository).findPageByStatusAndCategoryAndTagAfter(
+                PostStatus.PUBLISHED, categoryId, tagId, postSummary.getCreatedAt(), postId, Limit.of(11));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when findPostsPage is called with invalid limit")
+    void shouldThrowIllegalArgumentExceptionWhenFindPostsPageIsCalledWithInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> postService.findPostsPage(null, null, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> postService.findPostsPage(null, null, null, null, null, 101));
+
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when findPostsPage is called with malformed cursor")
+    void shouldThrowIllegalArgumentExceptionWhenFindPostsPageIsCalledWithMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> postService.findPostsPage(null, null, null, null, "not-a-cursor", 10));
+
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Should page through the filter index in its order when findPostsPage is called with tagIds")
+    void shouldPageThroughFilterIndexInItsOrderWhenFindPostsPageIsCalledWithTagIds() {
+        UUID otherTagId = UUID.randomUUID();
+        PostSummaryView olderPost = summaryView(UUID.randomUUID(), postSummary.getCreatedAt().minusMinutes(1));
+        when(postFilterIndexer.findPublished(null, Set.of(tagId, otherTagId), TagMatch.ANY, null, 2))
+                .thenReturn(List.of(postId, olderPost.getId()));
+        when(postRepository.findSummariesByIdIn(List.of(postId, olderPost.getId())))
+                .thenReturn(List.of(olderPost, postSummary));
+        stubSummaryMapping();
+
+        PostPageDto result = postService.findPostsPage(null, tagId, Set.of(otherTagId), "any", null, 1);
+
+        assertTrue(result.isHasNext());
+        assertEquals(postSummaryDtos, result.getContent());
+        assertEquals(postId, PostCursor.decode(result.getNextCursor()).getId());
+        verify(tagService).findTagsByIds(Set.of(tagId, otherTagId));
+        verify(postRepository, never()).findPageByStatusAndTag(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should read summaries in chunks when findAllPosts is called with tagIds matching many posts")
+    void shouldReadSummariesInChunksWhenFindAllPostsIsCalledWithTagIdsMatchingManyPosts() {
+        List<UUID> postIds = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            postIds.add(UUID.randomUUID());
+        }
+        when(postFilterIndexer.findPublished(null, Set.of(tagId), TagMatch.ALL, null, Integer.MAX_VALUE))
+                .thenReturn(postIds);
+        when(postRepository.findSummariesByIdIn(any())).thenReturn(List.of());
+
+        List<PostSummaryDto> result = postService.findAllPosts(null, null, Set.of(tagId), null);
+
+        assertEquals(List.of(), result);
+        verify(postRepository).findSummariesByIdIn(postIds.subList(0, 1000));
+        verify(postRepository).findSummariesByIdIn(postIds.subList(1000, 2000));
+        verify(postRepository).findSummariesByIdIn(postIds.subList(2000, 2500));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when findAllPosts is called with an unknown match")
+    void shouldThrowIllegalArgumentExceptionWhenFindAllPostsIsCalledWithUnknownMatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.findAllPosts(null, null, Set.of(tagId), "most"));
+
+        verifyNoInteractions(postRepository, postFilterIndexer);
+    }
+
+    @Test
+    @DisplayName("Should return highlighted hits and seek after the last rank when searchPosts pages through results")
+    void shouldReturnHighlightedHitsAndSeekAfterLastRankWhenSearchPostsPagesThroughResults() {
+        PostSearchView bestHit = searchView(postId, 0.6f, "<mark>test</mark> content");
+        PostSearchView nextHit = searchView(UUID.randomUUID(), 0.3f, "more <mark>test</mark>");
+        when(postRepository.search("test", "", "", 100, 2)).thenReturn(List.of(bestHit, nextHit));
+        when(postRepository.findTagsByPostIdIn(List.of(postId))).thenReturn(List.of(postTag));
+        when(tagMapper.mapViewToTagResponse(postTag)).thenReturn(tagResponse);
+        when(postMapper.mapToSummaryDto(bestHit, Set.of(tagResponse))).thenReturn(postSummaryDtos.get(0));
+
+        PostSearchPageDto firstPage = postService.searchPosts("test", null, null, null, 1);
+
+        assertTrue(firstPage.isHasNext());
+        assertFalse(firstPage.isTruncated());
+        assertEquals(List.of(new PostSearchHitDto(postSummaryDtos.get(0), "<mark>test</mark> content")), firstPage.getContent());
+
+        when(postRepository.searchAfter("test", "", "", 100, 0.6f, postId, 2)).thenReturn(List.of(nextHit));
+        when(postRepository.findTagsByPostIdIn(List.of(nextHit.getId()))).thenReturn(List.of());
+        when(postMapper.mapToSummaryDto(nextHit, Set.of())).thenReturn(new PostSummaryDto());
+
+        PostSearchPageDto secondPage = postService.searchPosts("test", null, null, firstPage.getNextCursor(), 1);
+
+        assertFalse(secondPage.isHasNext());
+        assertNull(secondPage.getNextCursor());
+        assertEquals("more <mark>test</mark>", secondPage.getContent().getFirst().getHighlight());
+    }
+
+    @Test
+    @DisplayName("Should mark the page truncated when searchPosts matches more posts than are ranked")
+    void shouldMarkPageTruncatedWhenSearchPostsMatchesMorePostsThanAreRanked() {
+        PostSearchView hit = searchView(postId, 0.6f, "<mark>test</mark> content", true);
+        when(postRepository.search("test", "", "", 100, 11)).thenReturn(List.of(hit));
+        when(postRepository.findTagsByPostIdIn(List.of(postId))).thenReturn(List.of());
+        when(postMapper.mapToSummaryDto(hit, Set.of())).thenReturn(postSummaryDtos.get(0));
+
+        PostSearchPageDto result = postService.searchPosts("test", null, null, null, 10);
+
+        assertTrue(result.isTruncated());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    @DisplayName("Should serve searchPosts from the in-memory index once it is ready")
+    void shouldServeSearchPostsFromInMemoryIndexOnceItIsReady() {
+        UUID deletedPostId = UUID.randomUUID();
+        when(postIndexer.isReady()).thenReturn(true);
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(postIndexer.search("test", categoryId, Set.of(tagId), null, 11)).thenReturn(List.of(
+                new PostSearchIndex.Hit(postId, 2.5f), new PostSearchIndex.Hit(deletedPostId, 1.5f)));
+        when(postRepository.findSummariesByIdIn(List.of(postId, deletedPostId))).thenReturn(List.of(postSummary));
+        when(postRepository.findContentsByIdIn(List.of(postId, deletedPostId))).thenReturn(List.of(
+                projectionFactory.createProjection(PostContentView.class, Map.of("id", postId, "content", "<p>Test Content</p>"))));
+        when(postIndexer.highlight("<p>Test Content</p>", "test")).thenReturn("<mark>Test</mark> Content");
+        stubSummaryMapping();
+
+        PostSearchPageDto result = postService.searchPosts("test", categoryId, Set.of(tagId), null, 10);
+
+        assertFalse(result.isHasNext());
+        assertEquals(List.of(new PostSearchHitDto(postSummaryDtos.get(0), "<mark>Test</mark> Content")), result.getContent());
+        verify(tagService).findTagsByIds(Set.of(tagId));
+        verify(postRepository, never()).search(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalStateException when searchPosts continues a cursor of the other engine")
+    void shouldThrowIllegalStateExceptionWhenSearchPostsContinuesCursorOfOtherEngine() {
+        String databaseCursor = PostSearchCursor.of(searchView(postId, 0.6f, "")).encode();
+        when(postIndexer.isReady()).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> postService.searchPosts("test", null, null, databaseCursor, 10));
+
+        verify(postIndexer, never()).search(any(), any(), any(), any(), anyInt());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when searchPosts is called with blank or oversized query")
+    void shouldThrowIllegalArgumentExceptionWhenSearchPostsIsCalledWithBlankOrOversizedQuery() {
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts(" ", null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts("a".repeat(257), null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts("test", null, null, "not-a-cursor", 10));
+
+        verifyNoInteractions(postRepository);
     }
 
     @Test
     @DisplayName("Should return user drafts when findAllUserDrafts is called")
     void shouldReturnUserDraftsWhenFindAllUserDraftsIsCalled() {
         when(userService.findUserById(userId)).thenReturn(user);
-        when(postRepository.findAllByAuthorAndStatus(user, PostStatus.DRAFT)).thenReturn(posts);
-        when(postMapper.mapToListDto(posts)).thenReturn(postDtos);
+        when(postRepository.findAllSummariesByAuthorAndStatus(user, PostStatus.DRAFT)).thenReturn(postSummaries);
+        stubSummaryMapping();
 
-        List<PostDto> result = postService.findAllUserDrafts(userId);
+        List<PostSummaryDto> result = postService.findAllUserDrafts(userId);
 
         assertNotNull(result);
-        assertEquals(postDtos.size(), result.size());
-        assertEquals(postDtos.get(0).getId(), result.get(0).getId());
+        assertEquals(postSummaryDtos.size(), result.size());
+        assertEquals(postSummaryDtos.get(0).getId(), result.get(0).getId());
 
         verify(userService).findUserById(userId);
-        verify(postRepository).findAllByAuthorAndStatus(user, PostStatus.DRAFT);
-        verify(postMapper).mapToListDto(posts);
+        verify(postRepository).findAllSummariesByAuthorAndStatus(user, PostStatus.DRAFT);
     }
 
     @Test
     @DisplayName("Should create post when createPost is called with valid request")
     void shouldCreatePostWhenCreatePostIsCalledWithValidRequest() {
         when(userService.findUserById(userId)).thenReturn(user);
-        when(categoryService.findCategoryById(categoryId)).thenReturn(category);
-        when(tagService.findTagsByIds(Set.of(tagId))).thenReturn(List.of(tag));
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(categoryService.getCategoryReference(categoryId)).thenReturn(category);
+        when(tagService.findTagsByIds(Set.of(tagId))).thenReturn(List.of(TagSnapshot.of(tag)));
+        when(tagService.getTagReferences(Set.of(tagId))).thenReturn(List.of(tag));
         when(postRepository.save(any(Post.class))).thenReturn(post);
         when(postMapper.mapToDto(post)).thenReturn(postDto);
 
@@ -228,18 +507,49 @@ class PostServiceTest {
         verify(userService).findUserById(userId);
         verify(categoryService).findCategoryById(categoryId);
         verify(tagService).findTagsByIds(Set.of(tagId));
-        verify(postRepository).save(any(Post.class));
+        verify(postRepository).save(argThat(saved -> saved.getCategory() == category && saved.getTags().equals(Set.of(tag))));
         verify(postMapper).mapToDto(post);
+        verify(categoryService).adjustPublishedPostCount(categoryId, 1);
+        verify(tagService).adjustPublishedPostCount(Set.of(tagId), 1);
+    }
+
+    @Test
+    @DisplayName("Should decrement published counters when updatePost unpublishes a post")
+    void shouldDecrementPublishedCountersWhenUpdatePostUnpublishesPost() {
+        Post publishedPost = new Post()
+                .setId(postId)
+                .setCategory(category)
+                .setTags(new HashSet<>(Set.of(tag)))
+                .setStatus(PostStatus.PUBLISHED);
+        UpdatePostRequestDto request = UpdatePostRequestDto.builder()
+                .id(postId)
+                .title("Updated Post")
+                .content("Updated Content")
+                .categoryId(categoryId)
+                .tagIds(Set.of(tagId))
+                .status(PostStatus.DRAFT)
+                .build();
+        when(postRepository.findLockedById(postId)).thenReturn(Optional.of(publishedPost));
+        when(tagService.findTagsByIds(Set.of(tagId))).thenReturn(List.of(TagSnapshot.of(tag)));
+        when(postRepository.save(publishedPost)).thenReturn(publishedPost);
+        when(postMapper.mapToDto(publishedPost)).thenReturn(postDto);
+
+        postService.updatePost(postId, request);
+
+        verify(categoryService).adjustPublishedPostCount(categoryId, -1);
+        verify(tagService).adjustPublishedPostCount(Set.of(tagId), -1);
+        verify(tagService).adjustPublishedPostCount(Set.of(), 1);
+        verify(categoryService, never()).adjustPublishedPostCount(categoryId, 1);
     }
 
     @Test
     @DisplayName("Should throw EntityNotFoundException when updatePost is called with non-existing post id")
     void shouldThrowEntityNotFoundExceptionWhenUpdatePostIsCalledWithNonExistingPostId() {
-        when(postRepository.findById(postId)).thenReturn(Optional.empty());
+        when(postRepository.findLockedById(postId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> postService.updatePost(postId, updatePostRequestDto));
 
-        verify(postRepository).findById(postId);
+        verify(postRepository).findLockedById(postId);
         verifyNoMoreInteractions(postRepository, categoryService, tagService, postMapper);
     }
 
@@ -273,9 +583,13 @@ class PostServiceTest {
     @Test
     @DisplayName("Should delete post when deletePost is called")
     void shouldDeletePostWhenDeletePostIsCalled() {
+        when(postRepository.findLockedById(postId)).thenReturn(Optional.of(post));
+
         postService.deletePost(postId);
 
-        verify(postRepository).deleteById(postId);
+        verify(postRepository).delete(post);
+        verify(categoryService).adjustPublishedPostCount(categoryId, -1);
+        verify(tagService).adjustPublishedPostCount(Set.of(tagId), -1);
     }
 
     @Test
@@ -292,7 +606,8 @@ class PostServiceTest {
                 .build();
 
         when(userService.findUserById(userId)).thenReturn(user);
-        when(categoryService.findCategoryById(categoryId)).thenReturn(category);
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(categoryService.getCategoryReference(categoryId)).thenReturn(category);
         when(tagService.findTagsByIds(any())).thenReturn(Collections.emptyList());
         when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
             Post savedPost = invocation.getArgument(0);
@@ -305,4 +620,32 @@ class PostServiceTest {
 
         verify(postRepository).save(any(Post.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should store plain text excerpt cut at a word boundary")
+    void shouldStorePlainTextExcerptCutAtWordBoundary() {
+        String content = "<p>" + "word ".repeat(60) + "</p><p>tail</p>";
+
+        CreatePostRequestDto request = CreatePostRequestDto.builder()
+                .title("Test")
+                .content(content)
+                .categoryId(categoryId)
+                .status(PostStatus.PUBLISHED)
+                .build();
+
+        when(userService.findUserById(userId)).thenReturn(user);
+        when(categoryService.findCategoryById(categoryId)).thenReturn(CategorySnapshot.of(category));
+        when(categoryService.getCategoryReference(categoryId)).thenReturn(category);
+        when(tagService.findTagsByIds(any())).thenReturn(Collections.emptyList());
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+            Post savedPost = invocation.getArgument(0);
+            assertEquals("word ".repeat(40).trim() + "...", savedPost.getExcerpt());
+            return savedPost;
+        });
+        when(postMapper.mapToDto(any(Post.class))).thenReturn(postDto);
+
+        postService.createPost(request, userId);
+
+        verify(postRepository).save(any(Post.class));
+    }
+}
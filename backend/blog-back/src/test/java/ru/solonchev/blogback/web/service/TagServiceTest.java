@@ -12,12 +12,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.solonchev.blogback.persistence.model.Post;
 import ru.solonchev.blogback.persistence.model.Tag;
+import ru.solonchev.blogback.persistence.projection.TagPostCountView;
 import ru.solonchev.blogback.persistence.repository.TagRepository;
+import ru.solonchev.blogback.search.TagSuggester;
 import ru.solonchev.blogback.web.dto.CreateTagsRequest;
 import ru.solonchev.blogback.web.dto.TagResponse;
 import ru.solonchev.blogback.web.dto.TagResponseWithPagination;
+import ru.solonchev.blogback.web.dto.TagSnapshot;
 import ru.solonchev.blogback.web.mapper.TagMapper;
 
 import java.util.*;
@@ -35,6 +39,9 @@ class TagServiceTest {
     @Mock
     private TagMapper tagMapper;
 
+    @Mock
+    private TagSuggester tagSuggester;
+
     @InjectMocks
     private TagService tagService;
 
@@ -43,7 +50,8 @@ class TagServiceTest {
     private TagResponse tagResponse;
     private List<Tag> tags;
     private List<TagResponse> tagResponses;
-    private Page<Tag> tagPage;
+    private TagPostCountView tagView;
+    private Page<TagPostCountView> tagPage;
     private CreateTagsRequest createTagsRequest;
 
     @BeforeEach
@@ -63,7 +71,11 @@ class TagServiceTest {
         tags = List.of(tag);
         tagResponses = List.of(tagResponse);
 
-        tagPage = new PageImpl<>(tags);
+        tagView = new SpelAwareProxyProjectionFactory().createProjection(
+                TagPostCountView.class,
+                Map.of("id", tagId, "name", "Test Tag", "postCount", 0L)
+        );
+        tagPage = new PageImpl<>(List.of(tagView));
 
         createTagsRequest = new CreateTagsRequest()
                 .setNames(Set.of("New Tag"));
@@ -79,7 +91,7 @@ class TagServiceTest {
 
         Pageable pageable = PageRequest.of(page, size);
         when(tagRepository.findAllWithPostCount(pageable)).thenReturn(tagPage);
-        when(tagMapper.mapToTagResponse(tag)).thenReturn(tagResponse);
+        when(tagMapper.mapCountViewToTagResponse(tagView)).thenReturn(tagResponse);
 
         TagResponseWithPagination result = tagService.findAllTags(page, size);
 
@@ -92,27 +104,76 @@ class TagServiceTest {
         assertEquals(page, result.getCurrentPage());
 
         verify(tagRepository).findAllWithPostCount(pageable);
-        verify(tagMapper).mapToTagResponse(tag);
+        verify(tagMapper).mapCountViewToTagResponse(tagView);
     }
 
     @Test
-    @DisplayName("Should create tags when createTags is called with valid request")
-    void shouldCreateTagsWhenCreateTagsIsCalledWithValidRequest() {
-        Set<String> tagNames = createTagsRequest.getNames();
-        when(tagRepository.findByNameIn(tagNames)).thenReturn(Collections.emptyList());
-        when(tagRepository.saveAll(anyList())).thenReturn(tags);
-        when(tagMapper.mapToListTagResponse(tags)).thenReturn(tagResponses);
+    @DisplayName("Should create tags in one statement when none of the requested names exist")
+    void shouldCreateTagsInOneStatementWhenNoneOfRequestedNamesExist() {
+        TagPostCountView newView = countView("New Tag", 0L);
+        TagResponse newResponse = new TagResponse(newView.getId(), "New Tag", 0);
+        when(tagRepository.insertMissing(new String[]{"New Tag"})).thenReturn(List.of(newView));
+        when(tagMapper.mapCountViewToTagResponse(newView)).thenReturn(newResponse);
 
         List<TagResponse> result = tagService.createTags(createTagsRequest);
 
-        assertNotNull(result);
-        assertEquals(tagResponses.size(), result.size());
-        assertEquals(tagResponses.get(0).getId(), result.get(0).getId());
-        assertEquals(tagResponses.get(0).getName(), result.get(0).getName());
+        assertEquals(List.of(newResponse), result);
+        verify(tagRepository).insertMissing(new String[]{"New Tag"});
+        verifyNoMoreInteractions(tagRepository);
+        verify(tagSuggester).reloadAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Should return existing tags along with created ones in request order when createTags is called")
+    void shouldReturnExistingTagsAlongWithCreatedOnesInRequestOrderWhenCreateTagsIsCalled() {
+        TagPostCountView newView = countView("New Tag", 0L);
+        TagPostCountView existingView = countView("Existing Tag", 3L);
+        TagResponse newResponse = new TagResponse(newView.getId(), "New Tag", 0);
+        TagResponse existingResponse = new TagResponse(existingView.getId(), "Existing Tag", 3);
+        createTagsRequest.setNames(new LinkedHashSet<>(List.of("Existing Tag", "New Tag")));
+        when(tagRepository.insertMissing(new String[]{"Existing Tag", "New Tag"})).thenReturn(List.of(newView));
+        when(tagRepository.findWithPostCountByNameIn(Set.of("Existing Tag"))).thenReturn(List.of(existingView));
+        when(tagMapper.mapCountViewToTagResponse(newView)).thenReturn(newResponse);
+        when(tagMapper.mapCountViewToTagResponse(existingView)).thenReturn(existingResponse);
+
+        List<TagResponse> result = tagService.createTags(createTagsRequest);
 
-        verify(tagRepository).findByNameIn(tagNames);
-        verify(tagRepository).saveAll(anyList());
-        verify(tagMapper).mapToListTagResponse(tags);
+        assertEquals(List.of(existingResponse, newResponse), result);
+        verify(tagSuggester).reloadAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Should not reload suggestions when every requested tag already exists")
+    void shouldNotReloadSuggestionsWhenEveryRequestedTagAlreadyExists() {
+        TagPostCountView existingView = countView("New Tag", 2L);
+        TagResponse existingResponse = new TagResponse(existingView.getId(), "New Tag", 2);
+        when(tagRepository.insertMissing(new String[]{"New Tag"})).thenReturn(List.of());
+        when(tagRepository.findWithPostCountByNameIn(Set.of("New Tag"))).thenReturn(List.of(existingView));
+        when(tagMapper.mapCountViewToTagResponse(existingView)).thenReturn(existingResponse);
+
+        assertEquals(List.of(existingResponse), tagService.createTags(createTagsRequest));
+
+        verifyNoInteractions(tagSuggester);
+    }
+
+    @Test
+    @DisplayName("Should suggest tags for the stripped prefix when suggestTags is called")
+    void shouldSuggestTagsForStrippedPrefixWhenSuggestTagsIsCalled() {
+        when(tagSuggester.suggest("tes", 10)).thenReturn(tagResponses);
+
+        assertEquals(tagResponses, tagService.suggestTags(" tes ", 10));
+
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when suggestTags is called with blank prefix or invalid limit")
+    void shouldThrowIllegalArgumentExceptionWhenSuggestTagsIsCalledWithBlankPrefixOrInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> tagService.suggestTags(" ", 10));
+        assertThrows(IllegalArgumentException.class, () -> tagService.suggestTags("tes", 0));
+        assertThrows(IllegalArgumentException.class, () -> tagService.suggestTags("tes", 51));
+
+        verifyNoInteractions(tagSuggester);
     }
 
     @Test
@@ -160,7 +221,7 @@ class TagServiceTest {
     void shouldFindTagByIdWhenFindTagByIdIsCalledWithValidId() {
         when(tagRepository.findById(tagId)).thenReturn(Optional.of(tag));
 
-        Tag result = tagService.findTagById(tagId);
+        TagSnapshot result = tagService.findTagById(tagId);
 
         assertNotNull(result);
         assertEquals(tag.getId(), result.getId());
@@ -188,7 +249,7 @@ class TagServiceTest {
         Set<UUID> tagIds = Set.of(tagId);
         when(tagRepository.findAllById(tagIds)).thenReturn(tags);
 
-        List<Tag> result = tagService.findTagsByIds(tagIds);
+        List<TagSnapshot> result = tagService.findTagsByIds(tagIds);
 
         assertNotNull(result);
         assertEquals(tags.size(), result.size());
@@ -211,4 +272,11 @@ class TagServiceTest {
 
         verify(tagRepository).findAllById(tagIds);
     }
+
+    private static TagPostCountView countView(String name, long postCount) {
+        return new SpelAwareProxyProjectionFactory().createProjection(
+                TagPostCountView.class,
+                Map.of("id", UUID.randomUUID(), "name", name, "postCount", postCount)
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package ru.solonchev.blogback.web.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextStatisticsTest {
+
+    private static final String[] FRAGMENTS = {
+            "word", "слово", " ", "  ", "\t", "\n", "\r\n", "<p>", "</p>", "<a href=\"x\">", "</a>", "<br/>",
+            "<", ">", "a<b", "x>y", "<span\nclass=\"y\">", "."
+    };
+
+    @Test
+    @DisplayName("Should match the regex based reading time and excerpt on ASCII whitespace")
+    void shouldMatchRegexBasedReadingTimeAndExcerptOnAsciiWhitespace() {
+        Random random = new Random(7);
+        for (int sample = 0; sample < 2_000; sample++) {
+            StringBuilder content = new StringBuilder();
+            int fragments = 1 + random.nextInt(sample % 2 == 0 ? 20 : 600);
+            for (int i = 0; i < fragments; i++) {
+                content.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String text = content.toString();
+            if (text.isBlank()) {
+                continue;
+            }
+
+            TextStatistics statistics = TextStatistics.of(text);
+
+            assertEquals(regexReadingTime(text), statistics.readingTime(), text);
+            assertEquals(regexExcerpt(text), statistics.excerpt(), text);
+            assertEquals(regexPlainText(text).length(), statistics.characterCount(), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat Unicode spaces as word separators")
+    void shouldTreatUnicodeSpacesAsWordSeparators() {
+        TextStatistics statistics = TextStatistics.of("one\u00A0two\u2003three\u202Ffour\u3000five");
+
+        assertEquals(5, statistics.wordCount());
+        assertEquals("one two three four five", statistics.excerpt());
+        assertEquals(23, statistics.characterCount());
+    }
+
+    @Test
+    @DisplayName("Should round reading time up to whole minutes")
+    void shouldRoundReadingTimeUpToWholeMinutes() {
+        assertEquals(1, TextStatistics.of("word ".repeat(200)).readingTime());
+        assertEquals(2, TextStatistics.of("word ".repeat(201)).readingTime());
+    }
+
+    @Test
+    @DisplayName("Should cut the excerpt at the last word boundary")
+    void shouldCutExcerptAtLastWordBoundary() {
+        TextStatistics statistics = TextStatistics.of("<p>" + "abcd ".repeat(60) + "</p>");
+
+        assertEquals("abcd ".repeat(40).trim() + "...", statistics.excerpt());
+        assertEquals(299, statistics.characterCount());
+    }
+
+    @Test
+    @DisplayName("Should cut the excerpt mid word when there is no space to cut at")
+    void shouldCutExcerptMidWordWhenThereIsNoSpaceToCutAt() {
+        TextStatistics statistics = TextStatistics.of("a".repeat(300));
+
+        assertEquals("a".repeat(200) + "...", statistics.excerpt());
+        assertEquals(1, statistics.wordCount());
+    }
+
+    @Test
+    @DisplayName("Should return empty statistics when content is missing")
+    void shouldReturnEmptyStatisticsWhenContentIsMissing() {
+        for (String content : new String[]{null, "", " \n\t "}) {
+            TextStatistics statistics = TextStatistics.of(content);
+            assertEquals(0, statistics.readingTime());
+            assertEquals(0, statistics.characterCount());
+            assertEquals("", statistics.excerpt());
+        }
+    }
+
+    private static int regexReadingTime(String content) {
+        return Math.ceilDiv(content.trim().split("\\s+").length, TextStatistics.WORDS_PER_MINUTE);
+    }
+
+    private static String regexPlainText(String content) {
+        return content.replaceAll("<[^>]*>", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    private static String regexExcerpt(String content) {
+        String text = regexPlainText(content);
+        if (text.length() <= TextStatistics.EXCERPT_LENGTH) {
+            return text;
+        }
+        int lastSpace = text.lastIndexOf(' ', TextStatistics.EXCERPT_LENGTH);
+        return text.substring(0, lastSpace > 0 ? lastSpace : TextStatistics.EXCERPT_LENGTH) + "...";
+    }
+}
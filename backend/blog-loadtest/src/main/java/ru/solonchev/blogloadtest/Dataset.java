@@ -0,0 +1,71 @@
+package ru.solonchev.blogloadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ids and emails the scenarios pick from, sampled from the database the backend serves, plus the row
+ * counts that go into the report so results can be related to data volume.
+ */
+public record Dataset(List<UUID> publishedPostIds,
+                      List<UUID> categoryIds,
+                      List<UUID> tagIds,
+                      List<String> userEmails,
+                      Map<String, Long> rowCounts) {
+
+    private static final List<String> TABLES = List.of("users", "categories", "tags", "posts", "post_tags");
+
+    public static Dataset load(Connection connection, int sampleSize) throws SQLException {
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet resultSet = statement.executeQuery("select count(*) from " + table)) {
+                    resultSet.next();
+                    rowCounts.put(table, resultSet.getLong(1));
+                }
+            }
+        }
+        return new Dataset(
+                uuids(connection, "select id from posts where status = 'PUBLISHED' order by random() limit ?", sampleSize),
+                uuids(connection, "select id from categories order by random() limit ?", sampleSize),
+                uuids(connection, "select id from tags order by random() limit ?", sampleSize),
+                strings(connection, "select email from users where email like ? limit ?", sampleSize),
+                rowCounts
+        );
+    }
+
+    private static List<UUID> uuids(Connection connection, String sql, int limit) throws SQLException {
+        List<UUID> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getObject(1, UUID.class));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> strings(Connection connection, String sql, int limit) throws SQLException {
+        List<String> values = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, "%" + DatasetSeeder.EMAIL_DOMAIN);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    values.add(resultSet.getString(1));
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,232 @@
+package ru.solonchev.blogloadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills a migrated database with generated users, categories, tags, posts and post tags through
+ * {@code COPY ... FROM STDIN}, which loads hundreds of thousands of rows per second where row-by-row
+ * inserts manage a few thousand. Everything is derived from one random seed, so two seeded databases
+ * hold identical data. Published post counters are recomputed once the rows are in.
+ */
+public class DatasetSeeder {
+
+    /**
+     * Shared password of every seeded user; the hash below is {@code bcrypt(10)} of it.
+     */
+    public static final String PASSWORD = "loadtest-password";
+    public static final String EMAIL_DOMAIN = "@loadtest.local";
+
+    private static final String PASSWORD_HASH = "{bcrypt}$2a$10$FrOS6raJI3AZQY1P8Exf3uo7P9GeKCRtgKNuKttP9rwjiszXuoOGW";
+    private static final int FLUSH_THRESHOLD = 1 << 20;
+    private static final int HISTORY_DAYS = 365;
+
+    private final Volumes volumes;
+
+    public DatasetSeeder(Volumes volumes) {
+        this.volumes = volumes;
+    }
+
+    public void seed(Connection connection, boolean reset) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            if (reset) {
+                statement.execute("truncate table post_tags, posts, tags, categories, users cascade");
+            }
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            Random random = new Random(volumes.randomSeed());
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+            List<UUID> userIds = copyUsers(copyManager, random, now);
+            List<UUID> categoryIds = copyNamed(copyManager, random, "categories", "category-", volumes.categories());
+            List<UUID> tagIds = copyNamed(copyManager, random, "tags", "tag-", volumes.tags());
+            copyPosts(copyManager, random, now, userIds, categoryIds, tagIds);
+
+            long startedAt = System.nanoTime();
+            statement.executeUpdate("""
+                    update categories c
+                    set published_post_count = (select count(*) from posts p
+                                                where p.category_id = c.id and p.status = 'PUBLISHED')
+                    """);
+            statement.executeUpdate("""
+                    update tags t
+                    set published_post_count = (select count(*) from post_tags pt
+                                                join posts p on p.id = pt.post_id
+                                                where pt.tag_id = t.id and p.status = 'PUBLISHED')
+                    """);
+            connection.commit();
+            log("counters", 0, startedAt);
+        } catch (SQLException | RuntimeException exception) {
+            connection.rollback();
+            throw exception;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze users, categories, tags, posts, post_tags");
+        }
+    }
+
+    private List<UUID> copyUsers(CopyManager copyManager, Random random, OffsetDateTime now) throws SQLException {
+        long startedAt = System.nanoTime();
+        List<UUID> ids = new ArrayList<>(volumes.users());
+        try (CopyStream copy = new CopyStream(copyManager, "copy users (id, email, password, name, created_at) from stdin")) {
+            for (int i = 0; i < volumes.users(); i++) {
+                UUID id = uuid(random);
+                ids.add(id);
+                copy.row(id, "user" + i + EMAIL_DOMAIN, PASSWORD_HASH, "Load Test User " + i,
+                        now.minusDays(HISTORY_DAYS + random.nextInt(HISTORY_DAYS)));
+            }
+        }
+        log("users", ids.size(), startedAt);
+        return ids;
+    }
+
+    private List<UUID> copyNamed(CopyManager copyManager, Random random, String table, String prefix, int count)
+            throws SQLException {
+        long startedAt = System.nanoTime();
+        List<UUID> ids = new ArrayList<>(count);
+        try (CopyStream copy = new CopyStream(copyManager, "copy " + table + " (id, name) from stdin")) {
+            for (int i = 0; i < count; i++) {
+                UUID id = uuid(random);
+                ids.add(id);
+                copy.row(id, prefix + i);
+            }
+        }
+        log(table, ids.size(), startedAt);
+        return ids;
+    }
+
+    private void copyPosts(CopyManager copyManager, Random random, OffsetDateTime now,
+                           List<UUID> userIds, List<UUID> categoryIds, List<UUID> tagIds) throws SQLException {
+        long startedAt = System.nanoTime();
+        UUID[] postIds = new UUID[volumes.posts()];
+        int[] firstTags = new int[volumes.posts()];
+        try (CopyStream copy = new CopyStream(copyManager, """
+                copy posts (id, title, author_id, content, excerpt, status, category_id, reading_time, created_at, updated_at)
+                from stdin""")) {
+            for (int i = 0; i < volumes.posts(); i++) {
+                postIds[i] = uuid(random);
+                firstTags[i] = random.nextInt(tagIds.size());
+                String content = TextGenerator.html(random, volumes.contentLength() / 2 + random.nextInt(volumes.contentLength() + 1));
+                OffsetDateTime createdAt = now.minusSeconds(random.nextInt(HISTORY_DAYS * 24 * 3600));
+                copy.row(postIds[i],
+                        "Post " + i + ": " + TextGenerator.words(random, 4),
+                        userIds.get(random.nextInt(userIds.size())),
+                        content,
+                        TextGenerator.excerpt(content),
+                        random.nextDouble() < volumes.publishedRatio() ? "PUBLISHED" : "DRAFT",
+                        categoryIds.get(random.nextInt(categoryIds.size())),
+                        TextGenerator.readingTime(content),
+                        createdAt,
+                        createdAt);
+            }
+        }
+        log("posts", postIds.length, startedAt);
+
+        startedAt = System.nanoTime();
+        int tagsPerPost = Math.min(volumes.tagsPerPost(), tagIds.size());
+        try (CopyStream copy = new CopyStream(copyManager, "copy post_tags (post_id, tag_id) from stdin")) {
+            for (int i = 0; i < postIds.length; i++) {
+                for (int tag = 0; tag < tagsPerPost; tag++) {
+                    copy.row(postIds[i], tagIds.get((firstTags[i] + tag) % tagIds.size()));
+                }
+            }
+        }
+        log("post_tags", (long) postIds.length * tagsPerPost, startedAt);
+    }
+
+    private static UUID uuid(Random random) {
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static void log(String table, long rows, long startedAt) {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        System.out.printf("Seeded %-10s %9d rows in %6.2f s%n", table, rows, seconds);
+    }
+
+    /**
+     * Dataset sizes. Posts get {@code contentLength / 2} to {@code contentLength * 1.5} characters of HTML
+     * and {@code tagsPerPost} distinct tags each.
+     */
+    public record Volumes(int users, int categories, int tags, int posts, int tagsPerPost,
+                          double publishedRatio, int contentLength, long randomSeed) {
+    }
+
+    /**
+     * Rows in PostgreSQL's text {@code COPY} format, buffered and sent in chunks.
+     */
+    private static final class CopyStream implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 64 * 1024);
+
+        CopyStream(CopyManager copyManager, String sql) throws SQLException {
+            this.copyIn = copyManager.copyIn(sql);
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                appendEscaped(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+
+        private void appendEscaped(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+                return;
+            }
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.solonchev.blogloadtest;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and response statuses of one scenario on one worker. Each worker owns its recorders, so recording
+ * needs no synchronization; recorders are merged once the run is over.
+ */
+public final class LatencyRecorder {
+
+    /**
+     * Status recorded for requests that failed before a response arrived.
+     */
+    public static final String IO_ERROR = "io-error";
+
+    private long[] latencies = new long[1024];
+    private int size;
+    private long errors;
+    private final Map<String, Long> statuses = new TreeMap<>();
+
+    public void record(int status, long latencyNanos) {
+        statuses.merge(String.valueOf(status), 1L, Long::sum);
+        if (status >= 400) {
+            errors++;
+            return;
+        }
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = latencyNanos;
+    }
+
+    public void recordIoError() {
+        statuses.merge(IO_ERROR, 1L, Long::sum);
+        errors++;
+    }
+
+    public static Summary summarize(Collection<LatencyRecorder> recorders, double elapsedSeconds) {
+        int total = recorders.stream().mapToInt(recorder -> recorder.size).sum();
+        long[] merged = new long[total];
+        int offset = 0;
+        long errors = 0;
+        Map<String, Long> statuses = new TreeMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, merged, offset, recorder.size);
+            offset += recorder.size;
+            errors += recorder.errors;
+            recorder.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+        Arrays.sort(merged);
+        return new Summary(total, errors, total / elapsedSeconds,
+                percentile(merged, 0.50), percentile(merged, 0.90), percentile(merged, 0.99),
+                total == 0 ? 0 : merged[total - 1] / 1_000_000.0, statuses);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * {@code requests} and {@code throughput} count successful responses, latencies are theirs in milliseconds.
+     * Failed requests count towards {@code errors}; {@code statuses} holds every outcome.
+     */
+    public record Summary(long requests, long errors, double throughput,
+                          double p50, double p90, double p99, double max, Map<String, Long> statuses) {
+    }
+}
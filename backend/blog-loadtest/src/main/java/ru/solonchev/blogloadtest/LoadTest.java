@@ -0,0 +1,184 @@
+package ru.solonchev.blogloadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-model load generator: {@code concurrency} workers each pick a scenario by its {@code --mix} weight,
+ * send the request, wait for the response and immediately go again. Results collected during the warmup are
+ * discarded. Workers run on virtual threads, so thousands of them are cheap and the generator itself does
+ * not become the bottleneck.
+ */
+public class LoadTest {
+
+    private static final int SAMPLE_SIZE = 10_000;
+
+    private final LoadTestOptions options;
+    private final Dataset dataset;
+    private final HttpClient client;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    public LoadTest(LoadTestOptions options, Dataset dataset) {
+        this.options = options;
+        this.dataset = dataset;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.scenarios = new Scenario[options.mix().size()];
+        this.cumulativeWeights = new int[options.mix().size()];
+        int index = 0;
+        int cumulativeWeight = 0;
+        for (Map.Entry<String, Integer> entry : options.mix().entrySet()) {
+            cumulativeWeight += entry.getValue();
+            scenarios[index] = Scenario.byName(entry.getKey());
+            cumulativeWeights[index++] = cumulativeWeight;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Dataset dataset;
+        try (Connection connection = DriverManager.getConnection(options.jdbcUrl(), options.dbUser(), options.dbPassword())) {
+            if (options.seed()) {
+                new DatasetSeeder(options.volumes()).seed(connection, options.reset());
+            }
+            dataset = Dataset.load(connection, SAMPLE_SIZE);
+        }
+        if (options.duration().isZero()) {
+            return;
+        }
+
+        System.out.printf("Running %d workers against %s for %s after %s warmup, dataset %s%n",
+                options.concurrency(), options.baseUrl(), options.duration(), options.warmup(), dataset.rowCounts());
+        LoadTestReport report = new LoadTest(options, dataset).run();
+        report.write(options.report());
+        System.out.print(report.format());
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+    }
+
+    public LoadTestReport run() throws InterruptedException, IOException {
+        validateDataset();
+        Scenario.Context context = new Scenario.Context(options.baseUrl(), dataset, loginWriters());
+
+        String startedAt = OffsetDateTime.now().toString();
+        long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        long stopAt = measureFrom + options.duration().toNanos();
+        List<Map<Scenario, LatencyRecorder>> recorders = new ArrayList<>(options.concurrency());
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < options.concurrency(); worker++) {
+                Map<Scenario, LatencyRecorder> workerRecorders = new EnumMap<>(Scenario.class);
+                for (Scenario scenario : scenarios) {
+                    workerRecorders.put(scenario, new LatencyRecorder());
+                }
+                recorders.add(workerRecorders);
+                workers.submit(() -> work(context, measureFrom, stopAt, workerRecorders));
+            }
+        }
+
+        double elapsedSeconds = options.duration().toNanos() / 1e9;
+        Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            summaries.put(scenario.scenarioName(), LatencyRecorder.summarize(
+                    recorders.stream().map(workerRecorders -> workerRecorders.get(scenario)).toList(), elapsedSeconds));
+        }
+        LatencyRecorder.Summary total = LatencyRecorder.summarize(
+                recorders.stream().flatMap(workerRecorders -> workerRecorders.values().stream()).toList(), elapsedSeconds);
+        return new LoadTestReport(startedAt, options.baseUrl().toString(), options.concurrency(),
+                options.warmup().toNanos() / 1e9, elapsedSeconds, options.mix(), dataset.rowCounts(), total, summaries);
+    }
+
+    private void work(Scenario.Context context, long measureFrom, long stopAt, Map<Scenario, LatencyRecorder> recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long now = System.nanoTime(); now < stopAt; now = System.nanoTime()) {
+            Scenario scenario = pickScenario(random);
+            HttpRequest request = scenario.request(context, random).build();
+
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException exception) {
+                status = -1;
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long finishedAt = System.nanoTime();
+            if (now < measureFrom || finishedAt > stopAt) {
+                continue;
+            }
+            if (status < 0) {
+                recorders.get(scenario).recordIoError();
+            } else {
+                recorders.get(scenario).record(status, finishedAt - now);
+            }
+        }
+    }
+
+    private Scenario pickScenario(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + value + " is outside the mix");
+    }
+
+    /**
+     * Logs in the writers that {@code create-post} requests authenticate as, before the clock starts.
+     */
+    private List<String> loginWriters() throws IOException, InterruptedException {
+        if (!options.mix().containsKey(Scenario.CREATE_POST.scenarioName())) {
+            return List.of();
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> tokens = new ArrayList<>();
+        for (String email : dataset.userEmails().subList(0, Math.min(options.writers(), dataset.userEmails().size()))) {
+            HttpRequest request = HttpRequest.newBuilder(options.baseUrl().resolve("/api/v1/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                            Map.of("email", email, "password", DatasetSeeder.PASSWORD))))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + email + " failed with status " + response.statusCode());
+            }
+            tokens.add(objectMapper.readTree(response.body()).get("token").asText());
+        }
+        return tokens;
+    }
+
+    private void validateDataset() {
+        Set<String> mix = options.mix().keySet();
+        requireData(mix, dataset.publishedPostIds(), "published posts", Scenario.POST);
+        requireData(mix, dataset.categoryIds(), "categories", Scenario.POSTS, Scenario.CREATE_POST);
+        requireData(mix, dataset.tagIds(), "tags", Scenario.CREATE_POST);
+        requireData(mix, dataset.userEmails(), "seeded users", Scenario.LOGIN, Scenario.CREATE_POST);
+    }
+
+    private static void requireData(Set<String> mix, List<?> data, String description, Scenario... scenarios) {
+        for (Scenario scenario : scenarios) {
+            if (mix.contains(scenario.scenarioName()) && data.isEmpty()) {
+                throw new IllegalStateException("Scenario " + scenario.scenarioName() + " needs " + description
+                        + " in the database; run with --seed=true first");
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.solonchev.blogloadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options in {@code --name=value} form. Every option has a default, so a bare run
+ * drives the default scenario mix against a local backend and its database.
+ */
+public record LoadTestOptions(URI baseUrl,
+                              int concurrency,
+                              Duration warmup,
+                              Duration duration,
+                              Map<String, Integer> mix,
+                              Path report,
+                              String jdbcUrl,
+                              String dbUser,
+                              String dbPassword,
+                              boolean seed,
+                              boolean reset,
+                              DatasetSeeder.Volumes volumes,
+                              int writers) {
+
+    private static final String DEFAULT_MIX = "posts:35,post:25,categories:10,tags:10,login:5,create-post:15";
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "base-url", "concurrency", "warmup", "duration", "mix", "report",
+            "jdbc-url", "db-user", "db-password", "seed", "reset",
+            "users", "categories", "tags", "posts", "tags-per-post", "published-ratio", "content-length", "random-seed",
+            "writers"
+    );
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separatorIndex = arg.indexOf('=');
+            String name = arg.substring(2, separatorIndex);
+            if (!KNOWN_OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            values.put(name, arg.substring(separatorIndex + 1));
+        }
+        return new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Integer.parseInt(values.getOrDefault("concurrency", "256")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "30s")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(values.getOrDefault("report", "target/loadtest/report.json")),
+                values.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/blog-platform"),
+                values.getOrDefault("db-user", "postgres"),
+                values.getOrDefault("db-password", "postgres"),
+                Boolean.parseBoolean(values.getOrDefault("seed", "false")),
+                Boolean.parseBoolean(values.getOrDefault("reset", "false")),
+                new DatasetSeeder.Volumes(
+                        Integer.parseInt(values.getOrDefault("users", "1000")),
+                        Integer.parseInt(values.getOrDefault("categories", "50")),
+                        Integer.parseInt(values.getOrDefault("tags", "500")),
+                        Integer.parseInt(values.getOrDefault("posts", "100000")),
+                        Integer.parseInt(values.getOrDefault("tags-per-post", "3")),
+                        Double.parseDouble(values.getOrDefault("published-ratio", "0.9")),
+                        Integer.parseInt(values.getOrDefault("content-length", "4000")),
+                        Long.parseLong(values.getOrDefault("random-seed", "42"))
+                ),
+                Integer.parseInt(values.getOrDefault("writers", "20"))
+        );
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected scenario:weight but got: " + entry);
+            }
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+}
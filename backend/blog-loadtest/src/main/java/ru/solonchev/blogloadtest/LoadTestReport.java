@@ -0,0 +1,46 @@
+package ru.solonchev.blogloadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Machine-readable outcome of a run: the configuration, the data volume it ran against, and a summary
+ * per scenario and overall. Written as JSON so runs can be archived and diffed.
+ */
+public record LoadTestReport(String startedAt,
+                             String baseUrl,
+                             int concurrency,
+                             double warmupSeconds,
+                             double durationSeconds,
+                             Map<String, Integer> mix,
+                             Map<String, Long> rowCounts,
+                             LatencyRecorder.Summary total,
+                             Map<String, LatencyRecorder.Summary> scenarios) {
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), this);
+    }
+
+    public String format() {
+        StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                "%-12s %9s %7s %10s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        scenarios.forEach((name, summary) -> text.append(line(name, summary)));
+        text.append(line("total", total));
+        return text.toString();
+    }
+
+    private static String line(String name, LatencyRecorder.Summary summary) {
+        return String.format(Locale.ROOT, "%-12s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                name, summary.requests(), summary.errors(), summary.throughput(),
+                summary.p50(), summary.p90(), summary.p99(), summary.max());
+    }
+}
@@ -0,0 +1,132 @@
+package ru.solonchev.blogloadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * One kind of request a worker can send. Scenario names are what {@code --mix} weights and the report refer to.
+ */
+public enum Scenario {
+
+    POSTS("posts") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            String query = random.nextBoolean()
+                    ? "?limit=20"
+                    : "?limit=20&categoryId=" + pick(context.dataset().categoryIds(), random);
+            return get(context, "/api/v1/posts" + query);
+        }
+    },
+    POST("post") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            return get(context, "/api/v1/posts/" + pick(context.dataset().publishedPostIds(), random));
+        }
+    },
+    SEARCH("search") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            String query = TextGenerator.words(new Random(random.nextLong()), 1 + random.nextInt(2));
+            return get(context, "/api/v1/posts/search?limit=20&q=" + URLEncoder.encode(query, StandardCharsets.UTF_8));
+        }
+    },
+    CATEGORIES("categories") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            return get(context, "/api/v1/categories");
+        }
+    },
+    TAGS("tags") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            return get(context, "/api/v1/tags?size=20&page=" + random.nextInt(5));
+        }
+    },
+    LOGIN("login") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            return post(context, "/api/v1/auth/login", Map.of(
+                    "email", pick(context.dataset().userEmails(), random),
+                    "password", DatasetSeeder.PASSWORD));
+        }
+    },
+    CREATE_POST("create-post") {
+        @Override
+        HttpRequest.Builder request(Context context, ThreadLocalRandom random) {
+            Random text = new Random(random.nextLong());
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("title", "Load test " + TextGenerator.words(text, 4));
+            body.put("content", TextGenerator.html(text, 2000));
+            body.put("categoryId", pick(context.dataset().categoryIds(), random));
+            body.put("tagIds", random.ints(3, 0, context.dataset().tagIds().size())
+                    .mapToObj(context.dataset().tagIds()::get)
+                    .collect(Collectors.toSet()));
+            body.put("status", "PUBLISHED");
+            return post(context, "/api/v1/posts", body)
+                    .header("Authorization", "Bearer " + pick(context.tokens(), random));
+        }
+    };
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String scenarioName;
+
+    Scenario(String scenarioName) {
+        this.scenarioName = scenarioName;
+    }
+
+    public String scenarioName() {
+        return scenarioName;
+    }
+
+    abstract HttpRequest.Builder request(Context context, ThreadLocalRandom random);
+
+    public static Scenario byName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.scenarioName.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+
+    private static HttpRequest.Builder get(Context context, String path) {
+        return HttpRequest.newBuilder(context.baseUrl().resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+    }
+
+    private static HttpRequest.Builder post(Context context, String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(context.baseUrl().resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body)));
+        } catch (JsonProcessingException exception) {
+            throw new IllegalStateException("Cannot serialize request body", exception);
+        }
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * What scenarios build requests from: the dataset sample and bearer tokens of logged-in writers.
+     */
+    public record Context(URI baseUrl, Dataset dataset, List<String> tokens) {
+    }
+}
@@ -0,0 +1,71 @@
+package ru.solonchev.blogloadtest;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Post bodies shaped like editor output, plus the excerpt and reading time the backend derives from them,
+ * so seeded rows look exactly like rows written through the API.
+ */
+final class TextGenerator {
+
+    private static final String[] WORDS = {
+            "spring", "boot", "java", "thread", "virtual", "cache", "query", "index", "latency", "throughput",
+            "a", "the", "of", "and", "to", "in", "is", "for", "with", "performance", "database", "transaction",
+            "микросервис", "блог", "пост", "категория", "тег", "производительность"
+    };
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int EXCERPT_LENGTH = 200;
+    private static final int WORDS_PER_MINUTE = 200;
+
+    private TextGenerator() {
+    }
+
+    static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    static String html(Random random, int length) {
+        StringBuilder content = new StringBuilder(length + 64);
+        while (content.length() < length) {
+            content.append("<p>");
+            int sentences = 2 + random.nextInt(4);
+            for (int sentence = 0; sentence < sentences; sentence++) {
+                int words = 6 + random.nextInt(12);
+                for (int word = 0; word < words; word++) {
+                    String text = WORDS[random.nextInt(WORDS.length)];
+                    if (random.nextInt(20) == 0) {
+                        content.append("<strong>").append(text).append("</strong>");
+                    } else {
+                        content.append(text);
+                    }
+                    content.append(word == words - 1 ? ". " : " ");
+                }
+            }
+            content.append("</p>\n");
+        }
+        return content.toString();
+    }
+
+    static String excerpt(String content) {
+        String text = WHITESPACE.matcher(TAG.matcher(content).replaceAll(" ")).replaceAll(" ").trim();
+        if (text.length() <= EXCERPT_LENGTH) {
+            return text;
+        }
+        int lastSpace = text.lastIndexOf(' ', EXCERPT_LENGTH);
+        return text.substring(0, lastSpace > 0 ? lastSpace : EXCERPT_LENGTH) + "...";
+    }
+
+    static int readingTime(String content) {
+        int wordCount = WHITESPACE.split(content.trim()).length;
+        return Math.ceilDiv(wordCount, WORDS_PER_MINUTE);
+    }
+}
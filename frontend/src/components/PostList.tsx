@@ -127,7 +127,7 @@ const PostList: React.FC<PostListProps> = ({
                 </CardHeader>
                 <CardBody>
                   <p className="line-clamp-3">
-                    {createExcerpt(post.content)}
+                    {createExcerpt(post.excerpt ?? post.content)}
                   </p>
                 </CardBody>
                 <CardFooter className="flex flex-wrap gap-3">
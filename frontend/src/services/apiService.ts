@@ -40,6 +40,7 @@ export interface Post {
   id: string;
   title: string;
   content: string;
+  excerpt?: string;
   author?: {
     id: string;
     name: string;